@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Local stand-in for Google's calendar push notifications.
+#
+# Sends the same headers Google sends to a watch channel's webhook, so the receiver and the
+# per-user re-sync can be exercised without a public HTTPS endpoint.
+#
+# Usage: scripts/send-calendar-notification.sh <channel-id> <channel-token> [resource-state] [base-url]
+#   channel id/token: from the "CalendarWatchChannel" table
+#   resource-state:   exists (default), sync or not_exists
+#   base-url:         defaults to http://localhost:8080
+
+set -euo pipefail
+
+if [ $# -lt 2 ]; then
+  echo "Usage: $0 <channel-id> <channel-token> [resource-state] [base-url]" >&2
+  exit 1
+fi
+
+CHANNEL_ID="$1"
+CHANNEL_TOKEN="$2"
+RESOURCE_STATE="${3:-exists}"
+BASE_URL="${4:-http://localhost:8080}"
+
+curl -sS -o /dev/null -w "%{http_code}\n" -X POST "$BASE_URL/api/google-calendar/notifications" \
+  -H "X-Goog-Channel-ID: $CHANNEL_ID" \
+  -H "X-Goog-Channel-Token: $CHANNEL_TOKEN" \
+  -H "X-Goog-Resource-ID: local-stand-in" \
+  -H "X-Goog-Resource-State: $RESOURCE_STATE" \
+  -H "X-Goog-Message-Number: $(date +%s)"
@@ -0,0 +1,73 @@
+package com.scheduler.config;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs each task on its own virtual thread, bounded by semaphores instead of a pool size.
+ *
+ * At most {@code maxConcurrent} tasks run at once; up to {@code maxQueued} more wait (parked,
+ * which costs next to nothing on a virtual thread). Beyond that execute throws
+ * RejectedExecutionException, the same signal a full ThreadPoolTaskExecutor queue gives.
+ */
+public class BoundedVirtualThreadExecutor implements AsyncTaskExecutor {
+
+    private final ThreadFactory threadFactory;
+    private final Semaphore admitted;
+    private final Semaphore running;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrent, int maxQueued) {
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 1).factory();
+        this.admitted = new Semaphore(Math.max(1, maxConcurrent) + Math.max(0, maxQueued));
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new RejectedExecutionException("Executor is at capacity");
+        }
+        try {
+            threadFactory.newThread(() -> run(task)).start();
+        } catch (RuntimeException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    private void run(Runnable task) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            admitted.release();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            running.release();
+            admitted.release();
+        }
+    }
+}
@@ -11,13 +11,18 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class EmailConfig {
 
+    /**
+     * SMTP sends. Platform threads even in virtual-thread mode: JavaMail's SMTPTransport does its
+     * socket I/O inside synchronized methods, which would pin a virtual thread's carrier for the
+     * whole send (see VirtualThreadPinningTest).
+     */
     @Bean(name = "emailTaskExecutor")
     public Executor emailTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("email-async-");
+        executor.setThreadNamePrefix("email-send-");
         executor.initialize();
         return executor;
     }
@@ -0,0 +1,190 @@
+package com.scheduler.config;
+
+import com.google.api.client.googleapis.GoogleUtils;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.util.SslUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One long-lived, pooled HTTP transport for all Google API calls.
+ * The Google trust store is parsed once and TLS connections are kept alive and reused
+ * across requests instead of being rebuilt for every calendar call.
+ */
+@Configuration
+public class GoogleApiConfig {
+
+    @Value("${google.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${google.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${google.http.idle-timeout-seconds:60}")
+    private long idleTimeoutSeconds;
+
+    @Value("${google.guard.max-concurrent-calls:10}")
+    private int maxConcurrentCalls;
+
+    @Value("${google.guard.max-queued-calls:50}")
+    private int maxQueuedCalls;
+
+    // Virtual-thread mode: tasks get their own virtual thread and are bounded by semaphores
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Background work that talks to Google (Meet link provisioning etc.), kept off request threads.
+     */
+    @Bean(name = "googleTaskExecutor")
+    public Executor googleTaskExecutor() {
+        if (virtualThreads) {
+            // Waiting on Google is cheap here; the calls themselves are bounded by googleCallExecutor
+            return new BoundedVirtualThreadExecutor("google-async-", 500, 0);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("google-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bulkhead for the outbound Google HTTP calls themselves (see GoogleApiGuard).
+     * Bounded threads and queue; a full queue rejects instead of piling up waiters.
+     * Platform threads even in virtual-thread mode: Apache HttpClient leases pooled connections
+     * inside a synchronized block, which pins virtual threads (see VirtualThreadPinningTest).
+     */
+    @Bean(name = "googleCallExecutor")
+    public AsyncTaskExecutor googleCallExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentCalls);
+        executor.setMaxPoolSize(maxConcurrentCalls);
+        executor.setQueueCapacity(maxQueuedCalls);
+        executor.setThreadNamePrefix("google-call-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Sends coalesced Calendar batches. Separate from googleTaskExecutor so tasks waiting
+     * on a batch result can never starve the batch itself.
+     */
+    @Bean(name = "googleBatchExecutor")
+    public Executor googleBatchExecutor() {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("google-batch-", 100, 0);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("google-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager googleConnectionManager(MeterRegistry meterRegistry)
+            throws GeneralSecurityException, IOException {
+        // Requests never wait for a pooled connection (ApacheHttpRequest leaves that wait unbounded):
+        // every Google call runs on googleCallExecutor, so leases never exceed its thread count
+        if (maxConcurrentCalls > maxConnectionsPerRoute) {
+            throw new IllegalStateException("google.guard.max-concurrent-calls (" + maxConcurrentCalls
+                    + ") must not exceed google.http.max-connections-per-route (" + maxConnectionsPerRoute + ")");
+        }
+
+        SSLContext sslContext = SslUtils.getTlsSslContext();
+        SslUtils.initSslContext(sslContext, GoogleUtils.getCertificateTrustStore(), SslUtils.getPkixTrustManagerFactory());
+
+        // Every socket created here is a new connection; compare with google.http.requests for reuse ratio
+        Counter opened = Counter.builder("google.http.connections.opened")
+                .description("New TCP/TLS connections opened to Google APIs")
+                .register(meterRegistry);
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new PlainConnectionSocketFactory() {
+                    @Override
+                    public Socket createSocket(HttpContext context) throws IOException {
+                        opened.increment();
+                        return super.createSocket(context);
+                    }
+                })
+                .register("https", new SSLConnectionSocketFactory(sslContext) {
+                    @Override
+                    public Socket createSocket(HttpContext context) throws IOException {
+                        opened.increment();
+                        return super.createSocket(context);
+                    }
+                })
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        Gauge.builder("google.http.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Pooled Google API connections currently in use")
+                .register(meterRegistry);
+        Gauge.builder("google.http.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Idle pooled Google API connections ready for reuse")
+                .register(meterRegistry);
+        Gauge.builder("google.http.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Requests waiting for a pooled Google API connection")
+                .register(meterRegistry);
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public HttpTransport googleHttpTransport(PoolingHttpClientConnectionManager googleConnectionManager,
+                                             MeterRegistry meterRegistry) {
+        Counter requests = Counter.builder("google.http.requests")
+                .description("HTTP requests sent to Google APIs")
+                .register(meterRegistry);
+
+        // No default RequestConfig: ApacheHttpRequest replaces it on every request, so connect and
+        // read timeouts are set per request by GoogleCalendarService.
+        // Same client setup as GoogleApacheHttpTransport, but with our pool, keep-alive and metrics
+        CloseableHttpClient httpClient = HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(googleConnectionManager)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .addInterceptorFirst((HttpRequestInterceptor) (request, context) -> requests.increment())
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build();
+
+        return new ApacheHttpTransport(httpClient);
+    }
+}
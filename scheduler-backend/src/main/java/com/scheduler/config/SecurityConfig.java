@@ -29,8 +29,10 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/google-calendar/auth-url").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/google-calendar/notifications").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/events/user/*/public").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/users/username/*").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/users/username/*/booking-page").permitAll()
 
                 // User sync endpoints (needed for Firebase auth flow)
                 .requestMatchers(HttpMethod.GET, "/api/users/firebase/*").permitAll()
@@ -40,8 +42,8 @@ public class SecurityConfig {
                 // Allow guest bookings (public can create bookings)
                 .requestMatchers(HttpMethod.POST, "/api/bookings").permitAll()
 
-                // Health check endpoints
-                .requestMatchers("/actuator/**").permitAll()
+                // Health check endpoint; other actuator endpoints (metrics) need authentication
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                 .requestMatchers("/error").permitAll()
 
                 // All other endpoints require authentication
@@ -1,11 +1,13 @@
 package com.scheduler.controller;
 
 import com.scheduler.dto.AvailabilityDTO;
+import com.scheduler.dto.ResourceVersion;
 import com.scheduler.service.AvailabilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/availability")
@@ -15,7 +17,11 @@ public class AvailabilityController {
     private final AvailabilityService availabilityService;
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<AvailabilityDTO> getAvailabilityByUserId(@PathVariable String userId) {
+    public ResponseEntity<AvailabilityDTO> getAvailabilityByUserId(@PathVariable String userId, WebRequest webRequest) {
+        ResourceVersion version = availabilityService.getAvailabilityVersion(userId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(availabilityService.getAvailabilityByUserId(userId));
     }
 
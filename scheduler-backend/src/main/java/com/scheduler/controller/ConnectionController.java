@@ -1,7 +1,12 @@
 package com.scheduler.controller;
 
+import com.scheduler.dto.BulkConnectionRequestDTO;
+import com.scheduler.dto.BulkConnectionResultDTO;
 import com.scheduler.dto.ConnectionDTO;
+import com.scheduler.dto.ConnectionPageDTO;
+import com.scheduler.dto.ConnectionSuggestionDTO;
 import com.scheduler.service.ConnectionService;
+import com.scheduler.service.ConnectionSuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +21,7 @@ import java.util.Map;
 public class ConnectionController {
 
     private final ConnectionService connectionService;
+    private final ConnectionSuggestionService connectionSuggestionService;
 
     @PostMapping
     public ResponseEntity<ConnectionDTO> sendConnectionRequest(@RequestBody Map<String, String> body) {
@@ -32,6 +38,14 @@ public class ConnectionController {
         return ResponseEntity.ok(connectionService.getAcceptedConnections(userId));
     }
 
+    @GetMapping("/accepted/{userId}/page")
+    public ResponseEntity<ConnectionPageDTO> getAcceptedConnectionsPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(connectionService.getAcceptedConnectionsPage(userId, cursor, limit));
+    }
+
     @GetMapping("/pending-sent/{userId}")
     public ResponseEntity<List<ConnectionDTO>> getPendingSentConnections(@PathVariable String userId) {
         return ResponseEntity.ok(connectionService.getPendingSentConnections(userId));
@@ -71,6 +85,21 @@ public class ConnectionController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk/accept")
+    public ResponseEntity<BulkConnectionResultDTO> acceptConnections(@RequestBody BulkConnectionRequestDTO request) {
+        return ResponseEntity.ok(connectionService.acceptConnections(request.getUserId(), request.getConnectionIds()));
+    }
+
+    @PostMapping("/bulk/reject")
+    public ResponseEntity<BulkConnectionResultDTO> rejectConnections(@RequestBody BulkConnectionRequestDTO request) {
+        return ResponseEntity.ok(connectionService.rejectConnections(request.getUserId(), request.getConnectionIds()));
+    }
+
+    @PostMapping("/bulk/remove")
+    public ResponseEntity<BulkConnectionResultDTO> removeConnections(@RequestBody BulkConnectionRequestDTO request) {
+        return ResponseEntity.ok(connectionService.removeConnections(request.getUserId(), request.getConnectionIds()));
+    }
+
     @GetMapping("/check/{userId1}/{userId2}")
     public ResponseEntity<Map<String, Boolean>> checkConnection(
             @PathVariable String userId1,
@@ -78,4 +107,19 @@ public class ConnectionController {
         boolean connected = connectionService.areConnected(userId1, userId2);
         return ResponseEntity.ok(Map.of("connected", connected));
     }
+
+    @GetMapping("/suggestions/{userId}")
+    public ResponseEntity<List<ConnectionSuggestionDTO>> getSuggestions(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(connectionSuggestionService.getSuggestions(userId, limit));
+    }
+
+    @GetMapping("/mutual/{userId1}/{userId2}")
+    public ResponseEntity<Map<String, Integer>> countMutualConnections(
+            @PathVariable String userId1,
+            @PathVariable String userId2) {
+        int count = connectionSuggestionService.countMutualConnections(userId1, userId2);
+        return ResponseEntity.ok(Map.of("count", count));
+    }
 }
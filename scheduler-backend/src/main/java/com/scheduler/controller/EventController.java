@@ -1,11 +1,13 @@
 package com.scheduler.controller;
 
 import com.scheduler.dto.EventDTO;
+import com.scheduler.dto.ResourceVersion;
 import com.scheduler.service.EventService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -32,7 +34,11 @@ public class EventController {
     }
 
     @GetMapping("/user/{userId}/public")
-    public ResponseEntity<List<EventDTO>> getPublicEventsByUserId(@PathVariable String userId) {
+    public ResponseEntity<List<EventDTO>> getPublicEventsByUserId(@PathVariable String userId, WebRequest webRequest) {
+        ResourceVersion version = eventService.getPublicEventsVersion(userId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(eventService.getPublicEventsByUserId(userId));
     }
 
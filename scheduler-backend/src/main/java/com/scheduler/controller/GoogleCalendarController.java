@@ -1,5 +1,6 @@
 package com.scheduler.controller;
 
+import com.scheduler.service.CalendarWatchService;
 import com.scheduler.service.GoogleCalendarService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +15,7 @@ import java.util.Map;
 public class GoogleCalendarController {
 
     private final GoogleCalendarService googleCalendarService;
+    private final CalendarWatchService calendarWatchService;
 
     @GetMapping("/auth-url")
     public ResponseEntity<Map<String, String>> getAuthorizationUrl() {
@@ -41,4 +43,17 @@ public class GoogleCalendarController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+
+    /**
+     * Watch-channel webhook called by Google. Always answers 200 quickly;
+     * the actual re-sync runs in the background.
+     */
+    @PostMapping("/notifications")
+    public ResponseEntity<Void> receiveNotification(
+            @RequestHeader(value = "X-Goog-Channel-ID", required = false) String channelId,
+            @RequestHeader(value = "X-Goog-Channel-Token", required = false) String channelToken,
+            @RequestHeader(value = "X-Goog-Resource-State", required = false) String resourceState) {
+        calendarWatchService.handleNotification(channelId, channelToken, resourceState);
+        return ResponseEntity.ok().build();
+    }
 }
@@ -1,12 +1,16 @@
 package com.scheduler.controller;
 
+import com.scheduler.dto.BookingPageDTO;
+import com.scheduler.dto.ResourceVersion;
 import com.scheduler.dto.UserDTO;
 import com.scheduler.service.AvailabilityService;
+import com.scheduler.service.BookingPageService;
 import com.scheduler.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -18,6 +22,7 @@ public class UserController {
 
     private final UserService userService;
     private final AvailabilityService availabilityService;
+    private final BookingPageService bookingPageService;
 
     @GetMapping
     public ResponseEntity<List<UserDTO>> getAllUsers() {
@@ -35,10 +40,21 @@ public class UserController {
     }
 
     @GetMapping("/username/{username}")
-    public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username) {
+    public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username, WebRequest webRequest) {
+        ResourceVersion version = userService.getUserVersionByUsername(username);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(userService.getUserByUsername(username));
     }
 
+    @GetMapping("/username/{username}/booking-page")
+    public ResponseEntity<BookingPageDTO> getBookingPage(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(bookingPageService.getBookingPage(username, days));
+    }
+
     @PostMapping
     public ResponseEntity<UserDTO> createUser(@RequestBody UserDTO userDTO) {
         UserDTO createdUser = userService.createUser(userDTO);
@@ -59,7 +75,12 @@ public class UserController {
     @GetMapping("/{id}/availability")
     public ResponseEntity<List<Map<String, Object>>> getUserAvailability(
             @PathVariable String id,
-            @RequestParam(defaultValue = "30") int duration) {
+            @RequestParam(defaultValue = "30") int duration,
+            WebRequest webRequest) {
+        ResourceVersion version = availabilityService.getTimeSlotsVersion(id, duration);
+        if (webRequest.checkNotModified(version.getEtag())) {
+            return null;
+        }
         List<Map<String, Object>> slots = availabilityService.getUserAvailableTimeSlots(id, duration);
         return ResponseEntity.ok(slots);
     }
@@ -0,0 +1,20 @@
+package com.scheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPageDTO {
+    private String userId;
+    private String username;
+    private String name;
+    private String imageUrl;
+    private List<EventDTO> events;
+    private Map<Integer, List<Map<String, Object>>> slotsByDuration;
+}
@@ -0,0 +1,15 @@
+package com.scheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkConnectionRequestDTO {
+    private String userId; // User acting on the connections
+    private List<String> connectionIds;
+}
@@ -0,0 +1,16 @@
+package com.scheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkConnectionResultDTO {
+    private List<ConnectionDTO> updated;
+    // Ids that were not found, not the user's to change, or not in a state that allows the change
+    private List<String> skippedIds;
+}
@@ -0,0 +1,16 @@
+package com.scheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionPageDTO {
+    private List<ConnectionDTO> connections;
+    private long totalCount;
+    private String nextCursor; // Pass back as ?cursor= for the next page; null on the last page
+}
@@ -0,0 +1,16 @@
+package com.scheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionSuggestionDTO {
+    private String userId;
+    private String name;
+    private String username;
+    private String imageUrl;
+    private int mutualCount;
+}
@@ -1,5 +1,6 @@
 package com.scheduler.dto;
 
+import com.scheduler.model.MeetLinkStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,6 +18,7 @@ public class EventDTO {
     private String userId;
     private Boolean isPrivate;
     private String meetLink;
+    private MeetLinkStatus meetLinkStatus;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
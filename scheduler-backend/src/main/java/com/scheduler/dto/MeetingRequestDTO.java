@@ -1,5 +1,6 @@
 package com.scheduler.dto;
 
+import com.scheduler.model.MeetLinkStatus;
 import com.scheduler.model.MeetingRequest.MeetingRequestStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -24,6 +25,7 @@ public class MeetingRequestDTO {
     private LocalDateTime endTime;
     private MeetingRequestStatus status;
     private String meetLink;
+    private MeetLinkStatus meetLinkStatus;
     private String googleEventId;
     private String rejectionReason;
     private LocalDateTime createdAt;
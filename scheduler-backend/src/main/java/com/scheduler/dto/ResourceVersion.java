@@ -0,0 +1,42 @@
+package com.scheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cheap HTTP validator for a resource: a weak ETag plus an optional Last-Modified timestamp.
+ * Built from version columns only, so conditional requests can be answered without loading the resource.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersion {
+    private String etag;
+    private LocalDateTime lastModified;
+
+    public static ResourceVersion of(LocalDateTime lastModified, Object... parts) {
+        StringBuilder key = new StringBuilder();
+        key.append(lastModified != null ? lastModified.toString() : "-");
+        for (Object part : parts) {
+            key.append('|').append(part);
+        }
+        String hash = DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+        return new ResourceVersion("W/\"" + hash + "\"", lastModified);
+    }
+
+    /**
+     * @return Last-Modified as epoch millis, or -1 when unknown (as expected by WebRequest.checkNotModified)
+     */
+    public long getLastModifiedMillis() {
+        if (lastModified == null) {
+            return -1;
+        }
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
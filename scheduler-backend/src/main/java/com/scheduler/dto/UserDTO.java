@@ -19,6 +19,7 @@ public class UserDTO {
     private String phoneNumber;
     private String googleAccessToken;
     private String googleRefreshToken;
+    private LocalDateTime googleTokenExpiresAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
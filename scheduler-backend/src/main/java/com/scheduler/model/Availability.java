@@ -38,6 +38,10 @@ public class Availability {
     @Column(nullable = false)
     private Integer timeGap;
 
+    // Bumped whenever a booking for this user changes; part of the slot list ETag
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long bookingVersion = 0L;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -50,5 +54,8 @@ public class Availability {
         if (id == null) {
             id = java.util.UUID.randomUUID().toString();
         }
+        if (bookingVersion == null) {
+            bookingVersion = 0L;
+        }
     }
 }
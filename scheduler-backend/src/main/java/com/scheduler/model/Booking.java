@@ -57,6 +57,10 @@ public class Booking {
     @Column(nullable = false)
     private String googleEventId;
 
+    // iCalendar SEQUENCE of the last invite sent; bumped when the time changes
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private Integer icsSequence = 0;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -69,5 +73,8 @@ public class Booking {
         if (id == null) {
             id = java.util.UUID.randomUUID().toString();
         }
+        if (icsSequence == null) {
+            icsSequence = 0;
+        }
     }
 }
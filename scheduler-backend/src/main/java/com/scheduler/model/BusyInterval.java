@@ -0,0 +1,41 @@
+package com.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A busy period on a host's Google Calendar, mirrored locally by BusyTimeSyncService
+ * so slot generation never has to call Google.
+ */
+@Entity
+@Table(name = "\"BusyInterval\"", indexes = {
+    @Index(name = "idx_busy_interval_user_start", columnList = "userId, startTime")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusyInterval {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) {
+            id = java.util.UUID.randomUUID().toString();
+        }
+    }
+}
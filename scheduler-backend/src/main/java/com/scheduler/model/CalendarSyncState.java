@@ -0,0 +1,29 @@
+package com.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user bookkeeping for the Google Calendar busy-time sync.
+ */
+@Entity
+@Table(name = "\"CalendarSyncState\"")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarSyncState {
+
+    @Id
+    private String userId;
+
+    private LocalDateTime lastSyncedAt;
+
+    private LocalDateTime lastAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
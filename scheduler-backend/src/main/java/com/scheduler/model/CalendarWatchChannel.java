@@ -0,0 +1,39 @@
+package com.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Google Calendar push-notification channel watching one host's primary calendar.
+ */
+@Entity
+@Table(name = "\"CalendarWatchChannel\"", indexes = {
+    @Index(name = "idx_calendar_watch_channel_user", columnList = "userId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarWatchChannel {
+
+    @Id
+    private String id; // Channel id we sent to Google (X-Goog-Channel-ID)
+
+    @Column(nullable = false)
+    private String userId;
+
+    private String resourceId; // Needed to stop the channel
+
+    @Column(nullable = false)
+    private String token; // Echoed back in X-Goog-Channel-Token
+
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,12 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "connections")
+@Table(name = "connections", indexes = {
+    @Index(name = "idx_connections_sender_status", columnList = "senderId, status"),
+    @Index(name = "idx_connections_receiver_status", columnList = "receiverId, status")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_connections_pair_key", columnNames = "pairKey")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +30,10 @@ public class Connection {
     @Column(nullable = false)
     private String receiverId; // User who received the connection request
 
+    // Same for both directions (see pairKeyOf) and unique, so a pair has at most one keyed row.
+    // Null only on legacy rows the backfill could not key; ConnectionService checks those separately.
+    private String pairKey;
+
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private ConnectionStatus status = ConnectionStatus.PENDING;
@@ -49,6 +58,16 @@ public class Connection {
         if (status == null) {
             status = ConnectionStatus.PENDING;
         }
+        if (pairKey == null && senderId != null && receiverId != null) {
+            pairKey = pairKeyOf(senderId, receiverId);
+        }
+    }
+
+    /**
+     * Smaller id first, compared the way Postgres compares under COLLATE "C".
+     */
+    public static String pairKeyOf(String userId1, String userId2) {
+        return userId1.compareTo(userId2) <= 0 ? userId1 + ":" + userId2 : userId2 + ":" + userId1;
     }
 
     public enum ConnectionStatus {
@@ -50,6 +50,11 @@ public class Event {
     @Column(columnDefinition = "TEXT")
     private String meetLink;
 
+    @Enumerated(EnumType.STRING)
+    private MeetLinkStatus meetLinkStatus;
+
+    private String googleEventId; // Calendar event backing the permanent Meet link
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,46 @@
+package com.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ready-made Meet link (backed by a transparent placeholder calendar event) waiting to be
+ * handed to the host's next new Event. Filled by MeetLinkPoolService.
+ */
+@Entity
+@Table(name = "\"MeetLinkPoolEntry\"", indexes = {
+    @Index(name = "idx_meet_link_pool_user_created", columnList = "userId, createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeetLinkPoolEntry {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String meetLink;
+
+    @Column(nullable = false)
+    private String googleEventId;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) {
+            id = java.util.UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.scheduler.model;
+
+public enum MeetLinkStatus {
+    PENDING,    // Calendar event is being created in the background
+    READY,      // Meet link from Google Calendar is stored
+    FALLBACK    // No Google access or creation failed; generic Meet link is stored
+}
@@ -43,6 +43,9 @@ public class MeetingRequest {
 
     private String meetLink;
 
+    @Enumerated(EnumType.STRING)
+    private MeetLinkStatus meetLinkStatus;
+
     private String googleEventId;
 
     @Column(columnDefinition = "TEXT")
@@ -0,0 +1,57 @@
+package com.scheduler.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One notification held back for a recipient's next digest email (app.email.digest.enabled).
+ * Rows are flushed into a single email per recipient by NotificationDigestService.
+ */
+@Entity
+@Table(name = "\"NotificationDigestEntry\"", indexes = {
+    @Index(name = "idx_notification_digest_recipient_created", columnList = "recipient, createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDigestEntry {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String recipientName;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DigestKind kind;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String headline;
+
+    @Column(columnDefinition = "TEXT")
+    private String detail;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) {
+            id = java.util.UUID.randomUUID().toString();
+        }
+    }
+
+    public enum DigestKind {
+        BOOKING,
+        CONNECTION_REQUEST
+    }
+}
@@ -43,6 +43,8 @@ public class User {
     @Column(columnDefinition = "TEXT")
     private String googleRefreshToken;
 
+    private LocalDateTime googleTokenExpiresAt; // null when unknown
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference("user-events")
     private List<Event> events = new ArrayList<>();
@@ -2,7 +2,11 @@ package com.scheduler.repository;
 
 import com.scheduler.model.Availability;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,26 @@ import java.util.Optional;
 public interface AvailabilityRepository extends JpaRepository<Availability, String> {
     Optional<Availability> findByUserId(String userId);
     boolean existsByUserId(String userId);
+
+    @Query("SELECT DISTINCT a FROM Availability a LEFT JOIN FETCH a.days WHERE a.userId = :userId")
+    Optional<Availability> findByUserIdWithDays(@Param("userId") String userId);
+
+    @Query("SELECT COUNT(a) AS total, MAX(a.updatedAt) AS lastModified, MAX(a.bookingVersion) AS bookingVersion " +
+           "FROM Availability a WHERE a.userId = :userId")
+    AvailabilityVersionStamp findVersionStampByUserId(@Param("userId") String userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Availability a SET a.bookingVersion = a.bookingVersion + 1 " +
+           "WHERE a.userId = (SELECT e.userId FROM Event e WHERE e.id = :eventId)")
+    int incrementBookingVersionForEvent(@Param("eventId") String eventId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Availability a SET a.bookingVersion = a.bookingVersion + 1 WHERE a.userId = :userId")
+    int incrementBookingVersionForUser(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM Availability a WHERE a.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") String userId);
 }
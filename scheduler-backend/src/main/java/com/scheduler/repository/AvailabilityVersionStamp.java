@@ -0,0 +1,9 @@
+package com.scheduler.repository;
+
+/**
+ * Version stamp for a user's availability, including the counter bumped whenever
+ * bookings for that user change (slot lists depend on both).
+ */
+public interface AvailabilityVersionStamp extends VersionStamp {
+    Long getBookingVersion();
+}
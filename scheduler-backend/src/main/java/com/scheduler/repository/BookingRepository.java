@@ -1,10 +1,13 @@
 package com.scheduler.repository;
 
 import com.scheduler.model.Booking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -39,4 +42,31 @@ public interface BookingRepository extends JpaRepository<Booking, String> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    // Id-only lookups used to delete bookings in bounded chunks without loading entities
+    @Query("SELECT b.id FROM Booking b WHERE b.eventId = :eventId")
+    List<String> findIdsByEventId(@Param("eventId") String eventId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.userId = :userId " +
+           "OR b.eventId IN (SELECT e.id FROM Event e WHERE e.userId = :userId)")
+    List<String> findIdsByHostUserId(@Param("userId") String userId, Pageable pageable);
+
+    // Bookings taken while the event's link was pending got the placeholder; swap in the real link
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.meetLink = :meetLink WHERE b.eventId = :eventId AND b.meetLink = :placeholder")
+    int backfillMeetLink(
+        @Param("eventId") String eventId,
+        @Param("placeholder") String placeholder,
+        @Param("meetLink") String meetLink
+    );
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.eventId = :eventId")
+    int bulkDeleteByEventId(@Param("eventId") String eventId);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.userId = :userId " +
+           "OR b.eventId IN (SELECT e.id FROM Event e WHERE e.userId = :userId)")
+    int bulkDeleteByHostUserId(@Param("userId") String userId);
 }
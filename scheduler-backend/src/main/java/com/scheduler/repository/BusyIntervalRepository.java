@@ -0,0 +1,28 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.BusyInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BusyIntervalRepository extends JpaRepository<BusyInterval, String> {
+    List<BusyInterval> findByUserIdOrderByStartTime(String userId);
+
+    @Query("SELECT b FROM BusyInterval b WHERE b.userId = :userId " +
+           "AND b.endTime > :from AND b.startTime < :to ORDER BY b.startTime")
+    List<BusyInterval> findOverlapping(
+        @Param("userId") String userId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @Modifying
+    @Query("DELETE FROM BusyInterval b WHERE b.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") String userId);
+}
@@ -0,0 +1,16 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.CalendarSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CalendarSyncStateRepository extends JpaRepository<CalendarSyncState, String> {
+
+    @Modifying
+    @Query("DELETE FROM CalendarSyncState s WHERE s.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") String userId);
+}
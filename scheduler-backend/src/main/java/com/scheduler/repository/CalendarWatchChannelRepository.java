@@ -0,0 +1,21 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.CalendarWatchChannel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CalendarWatchChannelRepository extends JpaRepository<CalendarWatchChannel, String> {
+    List<CalendarWatchChannel> findByUserId(String userId);
+
+    // Users whose newest channel outlives the cutoff need nothing
+    @Query("SELECT DISTINCT c.userId FROM CalendarWatchChannel c WHERE c.expiresAt > :cutoff")
+    List<String> findUserIdsWithChannelExpiringAfter(@Param("cutoff") LocalDateTime cutoff);
+
+    List<CalendarWatchChannel> findByExpiresAtBefore(LocalDateTime cutoff);
+}
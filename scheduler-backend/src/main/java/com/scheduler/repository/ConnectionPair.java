@@ -0,0 +1,9 @@
+package com.scheduler.repository;
+
+/**
+ * Projection of the two users on a connection, used to build the in-memory connection graph.
+ */
+public interface ConnectionPair {
+    String getSenderId();
+    String getReceiverId();
+}
@@ -2,22 +2,91 @@ package com.scheduler.repository;
 
 import com.scheduler.model.Connection;
 import com.scheduler.model.Connection.ConnectionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ConnectionRepository extends JpaRepository<Connection, String> {
+
+    // Left joins keep connections whose user was deleted, as the old per-row lookups did
+    String SELECT_WITH_USERS = "SELECT c.id AS id, c.senderId AS senderId, s.name AS senderName, s.email AS senderEmail, " +
+            "c.receiverId AS receiverId, r.name AS receiverName, r.email AS receiverEmail, c.status AS status, " +
+            "c.message AS message, c.connectedAt AS connectedAt, c.createdAt AS createdAt, c.updatedAt AS updatedAt " +
+            "FROM Connection c LEFT JOIN User s ON s.id = c.senderId LEFT JOIN User r ON r.id = c.receiverId ";
+
+    // Page position of a connection; rows accepted before connectedAt existed fall back to createdAt
+    String CONNECTED_SINCE = "COALESCE(c.connectedAt, c.createdAt)";
+
     List<Connection> findBySenderId(String senderId);
     List<Connection> findByReceiverId(String receiverId);
     List<Connection> findBySenderIdAndStatus(String senderId, ConnectionStatus status);
     List<Connection> findByReceiverIdAndStatus(String receiverId, ConnectionStatus status);
     Optional<Connection> findBySenderIdAndReceiverId(String senderId, String receiverId);
 
+    // Inner joins drop rows left behind by deleted users, so a reload does not bring them back
+    @Query("SELECT c.senderId AS senderId, c.receiverId AS receiverId FROM Connection c " +
+           "JOIN User s ON s.id = c.senderId JOIN User r ON r.id = c.receiverId " +
+           "WHERE c.status = ACCEPTED")
+    List<ConnectionPair> findAcceptedPairs();
+
+    @Query("SELECT CASE WHEN c.senderId = :userId THEN c.receiverId ELSE c.senderId END FROM Connection c " +
+           "WHERE (c.senderId = :userId OR c.receiverId = :userId) AND c.status = ACCEPTED")
+    List<String> findAcceptedCounterpartIds(@Param("userId") String userId);
+
+    // Everyone the user has a connection row with, whatever its status
+    @Query("SELECT CASE WHEN c.senderId = :userId THEN c.receiverId ELSE c.senderId END FROM Connection c " +
+           "WHERE c.senderId = :userId OR c.receiverId = :userId")
+    List<String> findCounterpartIds(@Param("userId") String userId);
+
+    // Both directions in one query
+    @Query(SELECT_WITH_USERS + "WHERE (c.senderId = :userId OR c.receiverId = :userId) AND c.status = :status " +
+           "ORDER BY " + CONNECTED_SINCE + " DESC, c.id DESC")
+    List<ConnectionWithUsers> findWithUsersByUserIdAndStatus(
+        @Param("userId") String userId,
+        @Param("status") ConnectionStatus status,
+        Pageable pageable
+    );
+
+    // Keyset page: rows strictly after (afterConnectedAt, afterId) in the order above
+    @Query(SELECT_WITH_USERS + "WHERE (c.senderId = :userId OR c.receiverId = :userId) AND c.status = :status " +
+           "AND (" + CONNECTED_SINCE + " < :afterConnectedAt " +
+           "OR (" + CONNECTED_SINCE + " = :afterConnectedAt AND c.id < :afterId)) " +
+           "ORDER BY " + CONNECTED_SINCE + " DESC, c.id DESC")
+    List<ConnectionWithUsers> findWithUsersByUserIdAndStatusAfter(
+        @Param("userId") String userId,
+        @Param("status") ConnectionStatus status,
+        @Param("afterConnectedAt") LocalDateTime afterConnectedAt,
+        @Param("afterId") String afterId,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(c) FROM Connection c WHERE (c.senderId = :userId OR c.receiverId = :userId) AND c.status = :status")
+    long countByUserIdAndStatus(@Param("userId") String userId, @Param("status") ConnectionStatus status);
+
+    @Query(SELECT_WITH_USERS + "WHERE c.senderId = :senderId AND c.status = :status")
+    List<ConnectionWithUsers> findWithUsersBySenderIdAndStatus(
+        @Param("senderId") String senderId,
+        @Param("status") ConnectionStatus status
+    );
+
+    @Query(SELECT_WITH_USERS + "WHERE c.receiverId = :receiverId AND c.status = :status")
+    List<ConnectionWithUsers> findWithUsersByReceiverIdAndStatus(
+        @Param("receiverId") String receiverId,
+        @Param("status") ConnectionStatus status
+    );
+
     // Check if connection exists in either direction with specific status
     @Query("SELECT c FROM Connection c WHERE " +
            "((c.senderId = :userId1 AND c.receiverId = :userId2) OR " +
@@ -28,4 +97,60 @@ public interface ConnectionRepository extends JpaRepository<Connection, String>
         @Param("userId2") String userId2,
         @Param("status") ConnectionStatus status
     );
+
+    // Bulk operations: rows stay locked until commit so single accepts/rejects cannot interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Connection c WHERE c.id IN :ids")
+    List<Connection> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Connection c SET c.status = :status, c.connectedAt = :connectedAt, c.updatedAt = :now " +
+           "WHERE c.id IN :ids")
+    int updateStatusByIdIn(
+        @Param("ids") Collection<String> ids,
+        @Param("status") ConnectionStatus status,
+        @Param("connectedAt") LocalDateTime connectedAt,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Connection c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    // Existence check and insert in one statement; returns 0 if the pair already has a row.
+    // No conflict target: the id is fresh, so pair_key is the only constraint that can hit.
+    @Modifying
+    @Query(value = "INSERT INTO connections (id, sender_id, receiver_id, pair_key, status, message, created_at, updated_at) " +
+                   "VALUES (:id, :senderId, :receiverId, :pairKey, 'PENDING', :message, :now, :now) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertPendingIfAbsent(
+        @Param("id") String id,
+        @Param("senderId") String senderId,
+        @Param("receiverId") String receiverId,
+        @Param("pairKey") String pairKey,
+        @Param("message") String message,
+        @Param("now") LocalDateTime now
+    );
+
+    // Rows from before pairKey that the backfill left without one are not covered by the constraint
+    @Query("SELECT COUNT(c) > 0 FROM Connection c WHERE c.pairKey IS NULL AND " +
+           "((c.senderId = :userId1 AND c.receiverId = :userId2) OR (c.senderId = :userId2 AND c.receiverId = :userId1))")
+    boolean existsWithoutPairKeyBetween(@Param("userId1") String userId1, @Param("userId2") String userId2);
+
+    long countByPairKeyIsNull();
+
+    // One-off fill for rows created before pairKey existed. Where a pair has rows in both
+    // directions only one (accepted first, then oldest) gets the key; the rest stay null.
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE connections c SET pair_key = k.pair_key FROM (" +
+                   "SELECT id, LEAST(sender_id COLLATE \"C\", receiver_id COLLATE \"C\") || ':' || " +
+                   "GREATEST(sender_id COLLATE \"C\", receiver_id COLLATE \"C\") AS pair_key, " +
+                   "ROW_NUMBER() OVER (PARTITION BY LEAST(sender_id COLLATE \"C\", receiver_id COLLATE \"C\"), " +
+                   "GREATEST(sender_id COLLATE \"C\", receiver_id COLLATE \"C\") " +
+                   "ORDER BY (status = 'ACCEPTED') DESC, created_at) AS rn " +
+                   "FROM connections) k " +
+                   "WHERE c.id = k.id AND k.rn = 1 AND c.pair_key IS NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM connections o WHERE o.pair_key = k.pair_key)", nativeQuery = true)
+    int backfillPairKeys();
 }
@@ -0,0 +1,24 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.Connection.ConnectionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a connection with both users' names and emails joined in, so listings
+ * need no per-row user lookups.
+ */
+public interface ConnectionWithUsers {
+    String getId();
+    String getSenderId();
+    String getSenderName();
+    String getSenderEmail();
+    String getReceiverId();
+    String getReceiverName();
+    String getReceiverEmail();
+    ConnectionStatus getStatus();
+    String getMessage();
+    LocalDateTime getConnectedAt();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+}
@@ -3,6 +3,9 @@ package com.scheduler.repository;
 import com.scheduler.model.DayAvailability;
 import com.scheduler.model.DayOfWeek;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +14,9 @@ import java.util.List;
 public interface DayAvailabilityRepository extends JpaRepository<DayAvailability, String> {
     List<DayAvailability> findByAvailabilityId(String availabilityId);
     List<DayAvailability> findByAvailabilityIdAndDay(String availabilityId, DayOfWeek day);
+
+    @Modifying
+    @Query("DELETE FROM DayAvailability d WHERE d.availabilityId IN " +
+           "(SELECT a.id FROM Availability a WHERE a.userId = :userId)")
+    int bulkDeleteByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,60 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.EmailOutbox;
+import com.scheduler.model.EmailOutbox.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, String> {
+
+    // Due rows plus SENDING rows whose lease ran out (dispatcher died mid-send).
+    // Lock timeout -2 is SKIP LOCKED, so several dispatchers never claim the same row.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE " +
+           "(e.status = PENDING AND e.nextAttemptAt <= :now) " +
+           "OR (e.status = SENDING AND e.lockedUntil < :now) " +
+           "ORDER BY e.nextAttemptAt")
+    List<EmailOutbox> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = SENT, " +
+           "e.sentAt = :now, e.lockedUntil = NULL, e.lastError = NULL WHERE e.id = :id")
+    int markSent(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, " +
+           "e.lockedUntil = NULL, e.lastError = :error WHERE e.id = :id")
+    int markFailed(
+        @Param("id") String id,
+        @Param("status") EmailOutboxStatus status,
+        @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+        @Param("error") String error
+    );
+
+    long countByStatus(EmailOutboxStatus status);
+
+    // Finished rows last attempted before the cutoff, oldest first; served by the (status, nextAttemptAt) index
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt < :before " +
+           "ORDER BY e.nextAttemptAt")
+    List<String> findIdsByStatusAttemptedBefore(
+        @Param("status") EmailOutboxStatus status,
+        @Param("before") LocalDateTime before,
+        Pageable pageable
+    );
+}
@@ -1,13 +1,54 @@
 package com.scheduler.repository;
 
 import com.scheduler.model.Event;
+import com.scheduler.model.MeetLinkStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, String> {
     List<Event> findByUserId(String userId);
     List<Event> findByUserIdAndIsPrivate(String userId, Boolean isPrivate);
+
+    @Query("SELECT COUNT(e) AS total, MAX(e.updatedAt) AS lastModified " +
+           "FROM Event e WHERE e.userId = :userId AND e.isPrivate = false")
+    VersionStamp findPublicVersionStampByUserId(@Param("userId") String userId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.userId = :userId")
+    List<String> findIdsByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") String userId);
+
+    @Query("SELECT e.googleEventId FROM Event e WHERE e.userId = :userId AND e.googleEventId IS NOT NULL")
+    List<String> findGoogleEventIdsByUserId(@Param("userId") String userId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.meetLinkStatus = :status AND e.updatedAt < :before")
+    List<String> findIdsByMeetLinkStatusUpdatedBefore(
+        @Param("status") MeetLinkStatus status,
+        @Param("before") LocalDateTime before
+    );
+
+    // Only a still-pending link is backfilled, so a late duplicate worker cannot overwrite it
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.meetLink = :meetLink, e.googleEventId = :googleEventId, " +
+           "e.meetLinkStatus = :status, e.updatedAt = :now " +
+           "WHERE e.id = :id AND e.meetLinkStatus = com.scheduler.model.MeetLinkStatus.PENDING")
+    int completePendingMeetLink(
+        @Param("id") String id,
+        @Param("meetLink") String meetLink,
+        @Param("googleEventId") String googleEventId,
+        @Param("status") MeetLinkStatus status,
+        @Param("now") LocalDateTime now
+    );
 }
@@ -0,0 +1,12 @@
+package com.scheduler.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the Google OAuth columns on User, so token checks don't load the whole entity.
+ */
+public interface GoogleCredentials {
+    String getAccessToken();
+    String getRefreshToken();
+    LocalDateTime getExpiresAt();
+}
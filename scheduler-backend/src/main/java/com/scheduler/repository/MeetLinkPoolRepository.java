@@ -0,0 +1,36 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.MeetLinkPoolEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MeetLinkPoolRepository extends JpaRepository<MeetLinkPoolEntry, String> {
+
+    // Lock timeout -2 is SKIP LOCKED: concurrent event creations for one host take different entries
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    Optional<MeetLinkPoolEntry> findFirstByUserIdOrderByCreatedAtAsc(String userId);
+
+    long countByUserId(String userId);
+
+    @Query("SELECT p.userId AS userId, COUNT(p) AS total FROM MeetLinkPoolEntry p GROUP BY p.userId")
+    List<MeetLinkPoolSize> countByUser();
+
+    @Query("SELECT p.googleEventId FROM MeetLinkPoolEntry p WHERE p.userId = :userId")
+    List<String> findGoogleEventIdsByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM MeetLinkPoolEntry p WHERE p.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") String userId);
+}
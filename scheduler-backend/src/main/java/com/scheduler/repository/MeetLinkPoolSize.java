@@ -0,0 +1,9 @@
+package com.scheduler.repository;
+
+/**
+ * Projection of how many pooled Meet links a host has waiting.
+ */
+public interface MeetLinkPoolSize {
+    String getUserId();
+    Long getTotal();
+}
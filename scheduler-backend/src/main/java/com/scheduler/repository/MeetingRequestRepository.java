@@ -1,10 +1,16 @@
 package com.scheduler.repository;
 
+import com.scheduler.model.MeetLinkStatus;
 import com.scheduler.model.MeetingRequest;
 import com.scheduler.model.MeetingRequest.MeetingRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +19,23 @@ public interface MeetingRequestRepository extends JpaRepository<MeetingRequest,
     List<MeetingRequest> findByReceiverId(String receiverId);
     List<MeetingRequest> findByReceiverIdAndStatus(String receiverId, MeetingRequestStatus status);
     List<MeetingRequest> findByRequesterIdAndStatus(String requesterId, MeetingRequestStatus status);
+
+    @Query("SELECT m.id FROM MeetingRequest m WHERE m.meetLinkStatus = :status AND m.updatedAt < :before")
+    List<String> findIdsByMeetLinkStatusUpdatedBefore(
+        @Param("status") MeetLinkStatus status,
+        @Param("before") LocalDateTime before
+    );
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MeetingRequest m SET m.meetLink = :meetLink, m.googleEventId = :googleEventId, " +
+           "m.meetLinkStatus = :status, m.updatedAt = :now " +
+           "WHERE m.id = :id AND m.meetLinkStatus = com.scheduler.model.MeetLinkStatus.PENDING")
+    int completePendingMeetLink(
+        @Param("id") String id,
+        @Param("meetLink") String meetLink,
+        @Param("googleEventId") String googleEventId,
+        @Param("status") MeetLinkStatus status,
+        @Param("now") LocalDateTime now
+    );
 }
@@ -0,0 +1,27 @@
+package com.scheduler.repository;
+
+import com.scheduler.model.NotificationDigestEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationDigestRepository extends JpaRepository<NotificationDigestEntry, String> {
+
+    // Recipients whose oldest buffered notification has waited a full window
+    @Query("SELECT d.recipient FROM NotificationDigestEntry d GROUP BY d.recipient HAVING MIN(d.createdAt) <= :cutoff")
+    List<String> findRecipientsDueBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // SKIP LOCKED so two instances never send the same entries
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<NotificationDigestEntry> findByRecipientOrderByCreatedAtAsc(String recipient);
+}
@@ -2,8 +2,14 @@ package com.scheduler.repository;
 
 import com.scheduler.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +20,30 @@ public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByFirebaseUid(String firebaseUid);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+
+    @Query("SELECT COUNT(u) AS total, MAX(u.updatedAt) AS lastModified " +
+           "FROM User u WHERE u.username = :username")
+    VersionStamp findVersionStampByUsername(@Param("username") String username);
+
+    @Query("SELECT u.googleAccessToken AS accessToken, u.googleRefreshToken AS refreshToken, " +
+           "u.googleTokenExpiresAt AS expiresAt FROM User u WHERE u.id = :id")
+    Optional<GoogleCredentials> findGoogleCredentialsById(@Param("id") String id);
+
+    @Query("SELECT u.id FROM User u WHERE u.googleAccessToken IS NOT NULL OR u.googleRefreshToken IS NOT NULL")
+    List<String> findIdsWithGoogleCredentials();
+
+    // Token-only write: leaves updatedAt (and so profile ETags) alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.googleAccessToken = :accessToken, u.googleTokenExpiresAt = :expiresAt " +
+           "WHERE u.id = :id")
+    int updateGoogleAccessToken(
+        @Param("id") String id,
+        @Param("accessToken") String accessToken,
+        @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int bulkDeleteById(@Param("id") String id);
 }
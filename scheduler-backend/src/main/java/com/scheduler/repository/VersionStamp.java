@@ -0,0 +1,12 @@
+package com.scheduler.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of row count and latest updatedAt for a set of rows.
+ * The count catches deletions, which never move MAX(updatedAt).
+ */
+public interface VersionStamp {
+    Long getTotal();
+    LocalDateTime getLastModified();
+}
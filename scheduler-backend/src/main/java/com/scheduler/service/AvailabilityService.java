@@ -2,9 +2,13 @@ package com.scheduler.service;
 
 import com.scheduler.dto.AvailabilityDTO;
 import com.scheduler.dto.DayAvailabilityDTO;
+import com.scheduler.dto.ResourceVersion;
 import com.scheduler.model.Availability;
+import com.scheduler.model.BusyInterval;
 import com.scheduler.model.DayAvailability;
 import com.scheduler.repository.AvailabilityRepository;
+import com.scheduler.repository.AvailabilityVersionStamp;
+import com.scheduler.repository.BusyIntervalRepository;
 import com.scheduler.repository.DayAvailabilityRepository;
 import com.scheduler.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +29,9 @@ public class AvailabilityService {
     private final AvailabilityRepository availabilityRepository;
     private final DayAvailabilityRepository dayAvailabilityRepository;
     private final UserRepository userRepository;
+    private final BusyIntervalRepository busyIntervalRepository;
+
+    static final int SLOT_HORIZON_DAYS = 30; // Next 30 days
 
     @Transactional(readOnly = true)
     public AvailabilityDTO getAvailabilityByUserId(String userId) {
@@ -33,6 +40,23 @@ public class AvailabilityService {
         return convertToDTO(availability);
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getAvailabilityVersion(String userId) {
+        AvailabilityVersionStamp stamp = availabilityRepository.findVersionStampByUserId(userId);
+        return ResourceVersion.of(stamp.getLastModified(), userId, stamp.getTotal());
+    }
+
+    /**
+     * Validator for the generated slot list. Slots depend on the availability template,
+     * on bookings (via bookingVersion) and on the current date, so Last-Modified is not meaningful here.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getTimeSlotsVersion(String userId, int duration) {
+        AvailabilityVersionStamp stamp = availabilityRepository.findVersionStampByUserId(userId);
+        return ResourceVersion.of(null, userId, stamp.getTotal(), stamp.getLastModified(),
+                stamp.getBookingVersion(), LocalDate.now(), duration);
+    }
+
     @Transactional
     public AvailabilityDTO createAvailability(AvailabilityDTO availabilityDTO) {
         if (!userRepository.existsById(availabilityDTO.getUserId())) {
@@ -45,44 +69,92 @@ public class AvailabilityService {
         Availability availability = convertToEntity(availabilityDTO);
         Availability savedAvailability = availabilityRepository.save(availability);
 
-        if (availabilityDTO.getDays() != null && !availabilityDTO.getDays().isEmpty()) {
+        List<DayAvailability> days = new ArrayList<>();
+        if (availabilityDTO.getDays() != null) {
             for (DayAvailabilityDTO dayDTO : availabilityDTO.getDays()) {
                 DayAvailability dayAvailability = new DayAvailability();
                 dayAvailability.setAvailabilityId(savedAvailability.getId());
-                dayAvailability.setDay(dayDTO.getDay());
-                dayAvailability.setStartTime(dayDTO.getStartTime());
-                dayAvailability.setEndTime(dayDTO.getEndTime());
-                dayAvailabilityRepository.save(dayAvailability);
+                applyDayChanges(dayAvailability, dayDTO);
+                days.add(dayAvailability);
             }
         }
+        // Inserts are sent as one JDBC batch (hibernate.jdbc.batch_size)
+        dayAvailabilityRepository.saveAll(days);
+        dayAvailabilityRepository.flush();
 
-        return getAvailabilityByUserId(availabilityDTO.getUserId());
+        return convertToDTO(savedAvailability, days);
     }
 
+    /**
+     * Replace the weekly schedule by diffing the incoming days against the stored rows:
+     * rows are matched by id first, then by weekday, so an edit typically results in one
+     * batched UPDATE plus at most one batched INSERT and one bulk DELETE.
+     */
     @Transactional
     public AvailabilityDTO updateAvailability(String id, AvailabilityDTO availabilityDTO) {
         Availability existingAvailability = availabilityRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Availability not found with id: " + id));
 
         existingAvailability.setTimeGap(availabilityDTO.getTimeGap());
-        availabilityRepository.save(existingAvailability);
+        // Day rows have no timestamp of their own; touch the parent so validators change
+        existingAvailability.setUpdatedAt(LocalDateTime.now());
 
-        dayAvailabilityRepository.deleteAll(
-            dayAvailabilityRepository.findByAvailabilityId(id)
-        );
+        List<DayAvailabilityDTO> incomingDays = availabilityDTO.getDays() != null
+                ? availabilityDTO.getDays()
+                : Collections.emptyList();
 
-        if (availabilityDTO.getDays() != null && !availabilityDTO.getDays().isEmpty()) {
-            for (DayAvailabilityDTO dayDTO : availabilityDTO.getDays()) {
-                DayAvailability dayAvailability = new DayAvailability();
-                dayAvailability.setAvailabilityId(id);
-                dayAvailability.setDay(dayDTO.getDay());
-                dayAvailability.setStartTime(dayDTO.getStartTime());
-                dayAvailability.setEndTime(dayDTO.getEndTime());
-                dayAvailabilityRepository.save(dayAvailability);
+        Map<String, DayAvailability> unmatched = new LinkedHashMap<>();
+        for (DayAvailability day : dayAvailabilityRepository.findByAvailabilityId(id)) {
+            unmatched.put(day.getId(), day);
+        }
+
+        // Rows explicitly referenced by id are reserved before any weekday matching
+        Set<String> claimedIds = new HashSet<>();
+        for (DayAvailabilityDTO dayDTO : incomingDays) {
+            if (dayDTO.getId() != null && unmatched.containsKey(dayDTO.getId())) {
+                claimedIds.add(dayDTO.getId());
+            }
+        }
+        Map<com.scheduler.model.DayOfWeek, Deque<DayAvailability>> reusableByDay =
+                new EnumMap<>(com.scheduler.model.DayOfWeek.class);
+        for (DayAvailability day : unmatched.values()) {
+            if (!claimedIds.contains(day.getId())) {
+                reusableByDay.computeIfAbsent(day.getDay(), d -> new ArrayDeque<>()).add(day);
             }
         }
 
-        return getAvailabilityByUserId(existingAvailability.getUserId());
+        List<DayAvailability> days = new ArrayList<>();
+        List<DayAvailability> toInsert = new ArrayList<>();
+        for (DayAvailabilityDTO dayDTO : incomingDays) {
+            DayAvailability target = null;
+            if (dayDTO.getId() != null && claimedIds.remove(dayDTO.getId())) {
+                target = unmatched.remove(dayDTO.getId());
+            } else {
+                Deque<DayAvailability> candidates = reusableByDay.get(dayDTO.getDay());
+                if (candidates != null && !candidates.isEmpty()) {
+                    target = candidates.poll();
+                    unmatched.remove(target.getId());
+                }
+            }
+
+            if (target == null) {
+                target = new DayAvailability();
+                target.setAvailabilityId(id);
+                toInsert.add(target);
+            }
+            // Managed rows are only UPDATEd by dirty checking if a value actually changed
+            applyDayChanges(target, dayDTO);
+            days.add(target);
+        }
+
+        if (!unmatched.isEmpty()) {
+            dayAvailabilityRepository.deleteAllByIdInBatch(unmatched.keySet());
+        }
+        dayAvailabilityRepository.saveAll(toInsert);
+        // Single flush: batched UPDATEs and INSERTs go out together and timestamps get populated
+        dayAvailabilityRepository.flush();
+
+        return convertToDTO(existingAvailability, days);
     }
 
     @Transactional
@@ -94,6 +166,10 @@ public class AvailabilityService {
     }
 
     private AvailabilityDTO convertToDTO(Availability availability) {
+        return convertToDTO(availability, dayAvailabilityRepository.findByAvailabilityId(availability.getId()));
+    }
+
+    private AvailabilityDTO convertToDTO(Availability availability, List<DayAvailability> days) {
         AvailabilityDTO dto = new AvailabilityDTO();
         dto.setId(availability.getId());
         dto.setUserId(availability.getUserId());
@@ -101,8 +177,7 @@ public class AvailabilityService {
         dto.setCreatedAt(availability.getCreatedAt());
         dto.setUpdatedAt(availability.getUpdatedAt());
 
-        List<DayAvailabilityDTO> dayDTOs = dayAvailabilityRepository
-            .findByAvailabilityId(availability.getId())
+        List<DayAvailabilityDTO> dayDTOs = days
             .stream()
             .map(this::convertDayToDTO)
             .collect(Collectors.toList());
@@ -121,6 +196,12 @@ public class AvailabilityService {
         return dto;
     }
 
+    private void applyDayChanges(DayAvailability dayAvailability, DayAvailabilityDTO dto) {
+        dayAvailability.setDay(dto.getDay());
+        dayAvailability.setStartTime(dto.getStartTime());
+        dayAvailability.setEndTime(dto.getEndTime());
+    }
+
     private Availability convertToEntity(AvailabilityDTO dto) {
         Availability availability = new Availability();
         availability.setId(dto.getId());
@@ -140,53 +221,103 @@ public class AvailabilityService {
         }
 
         List<DayAvailability> days = dayAvailabilityRepository.findByAvailabilityId(availability.getId());
+        List<DateWindow> windows = expandWindows(days, LocalDate.now(), SLOT_HORIZON_DAYS);
+        List<BusyInterval> busy = findBusyIntervals(userId, LocalDate.now(), SLOT_HORIZON_DAYS);
 
-        List<Map<String, Object>> availableDates = new ArrayList<>();
-        LocalDate startDate = LocalDate.now();
-        LocalDate endDate = startDate.plusDays(30); // Next 30 days
+        return buildDateSlots(windows, busy, duration, availability.getTimeGap());
+    }
+
+    /**
+     * Slot lists for several durations at once. The weekly template is loaded with a single
+     * fetch-join query and expanded into dated windows once; only the slot stepping runs per duration.
+     * @param days number of days (starting today) to include, capped at the regular horizon
+     * @return slot lists keyed by duration, empty when the user has no availability
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, List<Map<String, Object>>> getUserAvailableTimeSlots(String userId,
+                                                                             Collection<Integer> durations,
+                                                                             int days) {
+        Map<Integer, List<Map<String, Object>>> slotsByDuration = new TreeMap<>();
+        Availability availability = availabilityRepository.findByUserIdWithDays(userId)
+                .orElse(null);
+
+        if (availability == null) {
+            durations.forEach(duration -> slotsByDuration.put(duration, new ArrayList<>()));
+            return slotsByDuration;
+        }
+
+        int horizon = Math.max(0, Math.min(days, SLOT_HORIZON_DAYS));
+        List<DateWindow> windows = expandWindows(availability.getDays(), LocalDate.now(), horizon);
+        List<BusyInterval> busy = findBusyIntervals(userId, LocalDate.now(), horizon);
+
+        for (Integer duration : durations) {
+            slotsByDuration.put(duration, buildDateSlots(windows, busy, duration, availability.getTimeGap()));
+        }
+        return slotsByDuration;
+    }
+
+    /**
+     * Map each date in [startDate, startDate + days] to the configured window for its weekday.
+     */
+    private List<DateWindow> expandWindows(List<DayAvailability> days, LocalDate startDate, int horizonDays) {
+        // First configured window per weekday wins, as before
+        Map<com.scheduler.model.DayOfWeek, DayAvailability> byDay = new EnumMap<>(com.scheduler.model.DayOfWeek.class);
+        for (DayAvailability day : days) {
+            byDay.putIfAbsent(day.getDay(), day);
+        }
+
+        List<DateWindow> windows = new ArrayList<>();
+        LocalDate endDate = startDate.plusDays(horizonDays);
 
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            java.time.DayOfWeek javaDayOfWeek = date.getDayOfWeek();
-            com.scheduler.model.DayOfWeek modelDayOfWeek;
-
-            // Convert java.time.DayOfWeek to custom DayOfWeek enum
-            switch (javaDayOfWeek) {
-                case MONDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.MONDAY; break;
-                case TUESDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.TUESDAY; break;
-                case WEDNESDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.WEDNESDAY; break;
-                case THURSDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.THURSDAY; break;
-                case FRIDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.FRIDAY; break;
-                case SATURDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.SATURDAY; break;
-                case SUNDAY: modelDayOfWeek = com.scheduler.model.DayOfWeek.SUNDAY; break;
-                default: continue;
+            // java.time.DayOfWeek and the model enum share constant names
+            DayAvailability day = byDay.get(com.scheduler.model.DayOfWeek.valueOf(date.getDayOfWeek().name()));
+            if (day != null) {
+                windows.add(new DateWindow(date, day));
             }
+        }
 
-            Optional<DayAvailability> dayAvailability = days.stream()
-                .filter(d -> d.getDay() == modelDayOfWeek)
-                .findFirst();
-
-            if (dayAvailability.isPresent()) {
-                DayAvailability day = dayAvailability.get();
-                List<Map<String, String>> slots = generateTimeSlots(
-                    day.getStartTime(),
-                    day.getEndTime(),
-                    duration,
-                    availability.getTimeGap()
-                );
-
-                if (!slots.isEmpty()) {
-                    Map<String, Object> dateSlots = new HashMap<>();
-                    dateSlots.put("date", date.toString());
-                    dateSlots.put("slots", slots);
-                    availableDates.add(dateSlots);
-                }
+        return windows;
+    }
+
+    /**
+     * Busy time mirrored from the host's Google Calendar (see BusyTimeSyncService), sorted by start.
+     */
+    private List<BusyInterval> findBusyIntervals(String userId, LocalDate startDate, int horizonDays) {
+        return busyIntervalRepository.findOverlapping(
+            userId,
+            startDate.atStartOfDay(),
+            startDate.plusDays(horizonDays + 1L).atStartOfDay()
+        );
+    }
+
+    private List<Map<String, Object>> buildDateSlots(List<DateWindow> windows, List<BusyInterval> busy,
+                                                     int duration, int timeGap) {
+        List<Map<String, Object>> availableDates = new ArrayList<>();
+
+        for (DateWindow window : windows) {
+            List<Map<String, String>> slots = generateTimeSlots(
+                window.date(),
+                window.day().getStartTime(),
+                window.day().getEndTime(),
+                busy,
+                duration,
+                timeGap
+            );
+
+            if (!slots.isEmpty()) {
+                Map<String, Object> dateSlots = new HashMap<>();
+                dateSlots.put("date", window.date().toString());
+                dateSlots.put("slots", slots);
+                availableDates.add(dateSlots);
             }
         }
 
         return availableDates;
     }
 
-    private List<Map<String, String>> generateTimeSlots(LocalDateTime startTime, LocalDateTime endTime, int duration, int timeGap) {
+    private List<Map<String, String>> generateTimeSlots(LocalDate date, LocalDateTime startTime, LocalDateTime endTime,
+                                                        List<BusyInterval> busy, int duration, int timeGap) {
         List<Map<String, String>> slots = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
 
@@ -195,12 +326,31 @@ public class AvailabilityService {
         LocalTime current = start;
 
         while (current.plusMinutes(duration).isBefore(end) || current.plusMinutes(duration).equals(end)) {
-            Map<String, String> slot = new HashMap<>();
-            slot.put("time", current.format(formatter));
-            slots.add(slot);
+            LocalDateTime slotStart = LocalDateTime.of(date, current);
+            if (!overlapsBusy(slotStart, slotStart.plusMinutes(duration), busy)) {
+                Map<String, String> slot = new HashMap<>();
+                slot.put("time", current.format(formatter));
+                slots.add(slot);
+            }
             current = current.plusMinutes(duration + timeGap);
         }
 
         return slots;
     }
+
+    private boolean overlapsBusy(LocalDateTime start, LocalDateTime end, List<BusyInterval> busy) {
+        for (BusyInterval interval : busy) {
+            // Sorted by start: nothing further can overlap
+            if (!interval.getStartTime().isBefore(end)) {
+                return false;
+            }
+            if (interval.getEndTime().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record DateWindow(LocalDate date, DayAvailability day) {
+    }
 }
@@ -0,0 +1,50 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.BookingPageDTO;
+import com.scheduler.dto.EventDTO;
+import com.scheduler.model.User;
+import com.scheduler.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Builds everything a host's public booking page needs in one call:
+ * profile, public events and the first page of slots for each distinct event duration.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingPageService {
+
+    private final UserRepository userRepository;
+    private final EventService eventService;
+    private final AvailabilityService availabilityService;
+
+    @Transactional(readOnly = true)
+    public BookingPageDTO getBookingPage(String username, int days) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
+
+        List<EventDTO> events = eventService.getPublicEventsByUserId(user.getId());
+
+        Set<Integer> durations = events.stream()
+                .map(EventDTO::getDuration)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        BookingPageDTO dto = new BookingPageDTO();
+        dto.setUserId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setName(user.getName());
+        dto.setImageUrl(user.getImageUrl());
+        dto.setEvents(events);
+        dto.setSlotsByDuration(availabilityService.getUserAvailableTimeSlots(user.getId(), durations, days));
+        return dto;
+    }
+}
@@ -2,6 +2,7 @@ package com.scheduler.service;
 
 import com.scheduler.dto.BookingDTO;
 import com.scheduler.model.Booking;
+import com.scheduler.repository.AvailabilityRepository;
 import com.scheduler.repository.BookingRepository;
 import com.scheduler.repository.EventRepository;
 import com.scheduler.repository.UserRepository;
@@ -22,6 +23,7 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final AvailabilityRepository availabilityRepository;
     private final EmailService emailService;
 
     @Transactional(readOnly = true)
@@ -86,15 +88,16 @@ public class BookingService {
         String meetLink = event.getMeetLink();
         if (meetLink == null || meetLink.isEmpty()) {
             log.warn("Event {} doesn't have a Meet link, using fallback", event.getId());
-            meetLink = "https://meet.google.com/new";
+            meetLink = MeetLinkProvisioner.FALLBACK_MEET_LINK;
         }
 
         booking.setMeetLink(meetLink);
         log.info("Booking created with event's permanent Meet link: {}", meetLink);
 
         Booking savedBooking = bookingRepository.save(booking);
+        availabilityRepository.incrementBookingVersionForEvent(savedBooking.getEventId());
 
-        // Send emails asynchronously - won't block response
+        // Queues the emails in the outbox as part of this transaction; delivery happens after commit
         try {
             emailService.sendBookingEmails(savedBooking);
         } catch (Exception e) {
@@ -111,6 +114,14 @@ public class BookingService {
         Booking existingBooking = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
 
+        LocalDateTime previousStart = existingBooking.getStartTime();
+        LocalDateTime previousEnd = existingBooking.getEndTime();
+        boolean rescheduled = !previousStart.equals(bookingDTO.getStartTime())
+                || !previousEnd.equals(bookingDTO.getEndTime());
+        if (rescheduled) {
+            existingBooking.setIcsSequence(existingBooking.getIcsSequence() + 1);
+        }
+
         existingBooking.setName(bookingDTO.getName());
         existingBooking.setEmail(bookingDTO.getEmail());
         existingBooking.setAdditionalInfo(bookingDTO.getAdditionalInfo());
@@ -119,15 +130,32 @@ public class BookingService {
         existingBooking.setMeetLink(bookingDTO.getMeetLink());
 
         Booking updatedBooking = bookingRepository.save(existingBooking);
+        availabilityRepository.incrementBookingVersionForEvent(updatedBooking.getEventId());
+
+        if (rescheduled) {
+            try {
+                emailService.sendBookingRescheduledEmails(updatedBooking, previousStart, previousEnd);
+            } catch (Exception e) {
+                log.error("Failed to trigger reschedule emails for booking: {}. Error: {}",
+                        updatedBooking.getId(), e.getMessage(), e);
+            }
+        }
         return convertToDTO(updatedBooking);
     }
 
     @Transactional
     public void deleteBooking(String id) {
-        if (!bookingRepository.existsById(id)) {
-            throw new RuntimeException("Booking not found with id: " + id);
+        Booking booking = bookingRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
+        bookingRepository.delete(booking);
+        availabilityRepository.incrementBookingVersionForEvent(booking.getEventId());
+
+        try {
+            emailService.sendCancellationEmail(booking);
+        } catch (Exception e) {
+            log.error("Failed to trigger cancellation email for booking: {}. Error: {}",
+                    booking.getId(), e.getMessage(), e);
         }
-        bookingRepository.deleteById(id);
     }
 
     private BookingDTO convertToDTO(Booking booking) {
@@ -0,0 +1,178 @@
+package com.scheduler.service;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.TimePeriod;
+import com.scheduler.model.BusyInterval;
+import com.scheduler.model.CalendarSyncState;
+import com.scheduler.repository.AvailabilityRepository;
+import com.scheduler.repository.BusyIntervalRepository;
+import com.scheduler.repository.CalendarSyncStateRepository;
+import com.scheduler.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Mirrors each connected host's Google Calendar busy time into BusyInterval rows.
+ *
+ * A scheduled job asks the free/busy endpoint for the slot horizon and replaces the user's
+ * stored intervals when they changed, bumping the availability bookingVersion so slot ETags
+ * move. Slot generation only ever reads the local rows.
+ */
+@Service
+@Slf4j
+public class BusyTimeSyncService {
+
+    private final UserRepository userRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final BusyIntervalRepository busyIntervalRepository;
+    private final CalendarSyncStateRepository calendarSyncStateRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleTokenManager googleTokenManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor googleTaskExecutor;
+
+    // Sync requests per user not yet served by a run; present only while a run is in flight.
+    // One map so "still running?" and "anything new?" are answered in the same atomic step.
+    private final ConcurrentHashMap<String, Integer> pendingRequests = new ConcurrentHashMap<>();
+
+    public BusyTimeSyncService(UserRepository userRepository,
+                               AvailabilityRepository availabilityRepository,
+                               BusyIntervalRepository busyIntervalRepository,
+                               CalendarSyncStateRepository calendarSyncStateRepository,
+                               GoogleCalendarService googleCalendarService,
+                               GoogleTokenManager googleTokenManager,
+                               TransactionTemplate transactionTemplate,
+                               @Qualifier("googleTaskExecutor") Executor googleTaskExecutor) {
+        this.userRepository = userRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.busyIntervalRepository = busyIntervalRepository;
+        this.calendarSyncStateRepository = calendarSyncStateRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.googleTokenManager = googleTokenManager;
+        this.transactionTemplate = transactionTemplate;
+        this.googleTaskExecutor = googleTaskExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${google.busy-sync.interval-ms:600000}", initialDelay = 30000)
+    public void syncAll() {
+        for (String userId : userRepository.findIdsWithGoogleCredentials()) {
+            requestSync(userId);
+        }
+    }
+
+    /**
+     * Queue a background sync for one user. If one is already running, it does a single
+     * follow-up run when it finishes so the latest change is not missed.
+     */
+    public void requestSync(String userId) {
+        try {
+            googleTaskExecutor.execute(() -> syncUser(userId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Busy-time sync queue full, skipping user {} until the next run", userId);
+        }
+    }
+
+    private void syncUser(String userId) {
+        if (pendingRequests.merge(userId, 1, Integer::sum) > 1) {
+            return; // The running sync sees the count and goes again
+        }
+
+        do {
+            syncOnce(userId);
+        } while (pendingRequests.compute(userId, (id, count) -> count == 1 ? null : 1) != null);
+    }
+
+    private void syncOnce(String userId) {
+        try {
+            // Hosts without a schedule have no slots to filter
+            if (!availabilityRepository.existsByUserId(userId)) {
+                return;
+            }
+            String accessToken = googleTokenManager.getAccessToken(userId);
+            if (accessToken == null) {
+                return;
+            }
+
+            LocalDateTime from = LocalDate.now().atStartOfDay();
+            LocalDateTime to = from.plusDays(AvailabilityService.SLOT_HORIZON_DAYS + 1);
+            List<TimePeriod> busy = googleCalendarService.queryBusy(accessToken, from, to);
+
+            boolean changed = Boolean.TRUE.equals(transactionTemplate.execute(status -> replaceIntervals(userId, busy)));
+            recordAttempt(userId, null);
+            if (changed) {
+                log.info("Busy time for user {} changed ({} intervals)", userId, busy.size());
+            }
+        } catch (Exception e) {
+            log.warn("Busy-time sync failed for user {}: {}", userId, e.getMessage());
+            recordAttempt(userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if the stored intervals were replaced
+     */
+    private boolean replaceIntervals(String userId, List<TimePeriod> busy) {
+        List<BusyInterval> existing = busyIntervalRepository.findByUserIdOrderByStartTime(userId);
+        List<BusyInterval> incoming = busy.stream()
+                .map(period -> new BusyInterval(null, userId, toLocal(period.getStart()), toLocal(period.getEnd())))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+
+        if (sameIntervals(existing, incoming)) {
+            return false;
+        }
+
+        busyIntervalRepository.bulkDeleteByUserId(userId);
+        busyIntervalRepository.saveAll(incoming);
+        availabilityRepository.incrementBookingVersionForUser(userId);
+        return true;
+    }
+
+    private boolean sameIntervals(List<BusyInterval> existing, List<BusyInterval> incoming) {
+        if (existing.size() != incoming.size()) {
+            return false;
+        }
+        for (int i = 0; i < existing.size(); i++) {
+            BusyInterval a = existing.get(i);
+            BusyInterval b = incoming.get(i);
+            if (!Objects.equals(a.getStartTime(), b.getStartTime()) || !Objects.equals(a.getEndTime(), b.getEndTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordAttempt(String userId, String error) {
+        CalendarSyncState state = calendarSyncStateRepository.findById(userId)
+                .orElseGet(() -> {
+                    CalendarSyncState created = new CalendarSyncState();
+                    created.setUserId(userId);
+                    return created;
+                });
+        LocalDateTime now = LocalDateTime.now();
+        state.setLastAttemptAt(now);
+        state.setLastError(error);
+        if (error == null) {
+            state.setLastSyncedAt(now);
+        }
+        calendarSyncStateRepository.save(state);
+    }
+
+    // Same zone convention as GoogleCalendarService uses for outgoing times
+    private LocalDateTime toLocal(DateTime dateTime) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(dateTime.getValue()), ZoneId.systemDefault());
+    }
+}
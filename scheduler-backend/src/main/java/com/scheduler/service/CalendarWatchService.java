@@ -0,0 +1,177 @@
+package com.scheduler.service;
+
+import com.google.api.services.calendar.model.Channel;
+import com.scheduler.model.CalendarWatchChannel;
+import com.scheduler.repository.CalendarWatchChannelRepository;
+import com.scheduler.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Lifecycle of Google Calendar watch channels and handling of their notifications.
+ *
+ * Each Google-connected host gets a channel on their primary calendar. Channels are replaced
+ * before they expire and stopped when the user is deleted. A notification for a known channel
+ * queues a busy-time re-sync for that host only, which in turn moves their slot ETags.
+ * Disabled when {@code google.calendar.webhook-url} is empty (Google requires a public HTTPS URL).
+ */
+@Service
+@Slf4j
+public class CalendarWatchService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final CalendarWatchChannelRepository channelRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleTokenManager googleTokenManager;
+    private final BusyTimeSyncService busyTimeSyncService;
+    private final Executor googleTaskExecutor;
+
+    @Value("${google.calendar.webhook-url:}")
+    private String webhookUrl;
+
+    @Value("${google.calendar.watch.ttl-seconds:604800}")
+    private long ttlSeconds;
+
+    @Value("${google.calendar.watch.renew-before-seconds:86400}")
+    private long renewBeforeSeconds;
+
+    public CalendarWatchService(CalendarWatchChannelRepository channelRepository,
+                                UserRepository userRepository,
+                                GoogleCalendarService googleCalendarService,
+                                GoogleTokenManager googleTokenManager,
+                                BusyTimeSyncService busyTimeSyncService,
+                                @Qualifier("googleTaskExecutor") Executor googleTaskExecutor) {
+        this.channelRepository = channelRepository;
+        this.userRepository = userRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.googleTokenManager = googleTokenManager;
+        this.busyTimeSyncService = busyTimeSyncService;
+        this.googleTaskExecutor = googleTaskExecutor;
+    }
+
+    /**
+     * Handle one webhook call. Never calls Google on the request thread.
+     * @return false if the channel is unknown or the token does not match
+     */
+    public boolean handleNotification(String channelId, String channelToken, String resourceState) {
+        if (channelId == null) {
+            return false;
+        }
+        CalendarWatchChannel channel = channelRepository.findById(channelId).orElse(null);
+        if (channel == null || channelToken == null || !MessageDigest.isEqual(
+                channel.getToken().getBytes(StandardCharsets.UTF_8), channelToken.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Ignoring calendar notification for unknown channel {}", channelId);
+            return false;
+        }
+
+        // "sync" only confirms the channel was created
+        if (!"sync".equals(resourceState)) {
+            busyTimeSyncService.requestSync(channel.getUserId());
+        }
+        return true;
+    }
+
+    /**
+     * Give every connected host a live channel and replace ones close to expiry.
+     */
+    @Scheduled(fixedDelayString = "${google.calendar.watch.check-interval-ms:3600000}", initialDelay = 60000)
+    public void maintainChannels() {
+        if (webhookUrl.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime renewCutoff = LocalDateTime.now().plusSeconds(renewBeforeSeconds);
+        Set<String> covered = new HashSet<>(channelRepository.findUserIdsWithChannelExpiringAfter(renewCutoff));
+        for (String userId : userRepository.findIdsWithGoogleCredentials()) {
+            if (!covered.contains(userId)) {
+                submit(() -> register(userId));
+            }
+        }
+
+        // Replaced channels are stopped once expired or close to it; a short overlap avoids gaps
+        for (CalendarWatchChannel channel : channelRepository.findByExpiresAtBefore(renewCutoff)) {
+            if (covered.contains(channel.getUserId()) || channel.getExpiresAt().isBefore(LocalDateTime.now())) {
+                submit(() -> stop(channel));
+            }
+        }
+    }
+
+    /**
+     * Stop all of a user's channels; called before the user row is deleted.
+     */
+    public void stopChannels(String userId) {
+        for (CalendarWatchChannel channel : channelRepository.findByUserId(userId)) {
+            stop(channel);
+        }
+    }
+
+    private void register(String userId) {
+        String accessToken = googleTokenManager.getAccessToken(userId);
+        if (accessToken == null) {
+            return;
+        }
+
+        String channelId = UUID.randomUUID().toString();
+        byte[] secret = new byte[24];
+        RANDOM.nextBytes(secret);
+        String channelToken = HexFormat.of().formatHex(secret);
+
+        try {
+            Channel registered = googleCalendarService.watchPrimaryCalendar(
+                    accessToken, channelId, channelToken, webhookUrl, ttlSeconds);
+
+            CalendarWatchChannel channel = new CalendarWatchChannel();
+            channel.setId(channelId);
+            channel.setUserId(userId);
+            channel.setResourceId(registered.getResourceId());
+            channel.setToken(channelToken);
+            channel.setExpiresAt(registered.getExpiration() != null
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(registered.getExpiration()), ZoneId.systemDefault())
+                    : LocalDateTime.now().plusSeconds(ttlSeconds));
+            channelRepository.save(channel);
+            log.info("Registered calendar watch channel {} for user {} until {}", channelId, userId, channel.getExpiresAt());
+        } catch (Exception e) {
+            log.warn("Calendar watch registration failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void stop(CalendarWatchChannel channel) {
+        String accessToken = googleTokenManager.getAccessToken(channel.getUserId());
+        try {
+            if (accessToken != null && channel.getResourceId() != null
+                    && channel.getExpiresAt() != null && channel.getExpiresAt().isAfter(LocalDateTime.now())) {
+                googleCalendarService.stopChannel(accessToken, channel.getId(), channel.getResourceId());
+            }
+        } catch (Exception e) {
+            // Google drops it at expiry anyway; notifications for it are ignored once the row is gone
+            log.warn("Failed to stop calendar watch channel {}: {}", channel.getId(), e.getMessage());
+        }
+        channelRepository.deleteById(channel.getId());
+    }
+
+    private void submit(Runnable task) {
+        try {
+            googleTaskExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Calendar watch queue full, retrying on the next run");
+        }
+    }
+}
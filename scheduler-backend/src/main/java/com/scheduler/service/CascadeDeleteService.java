@@ -0,0 +1,156 @@
+package com.scheduler.service;
+
+import com.scheduler.model.Event;
+import com.scheduler.repository.AvailabilityRepository;
+import com.scheduler.repository.BookingRepository;
+import com.scheduler.repository.BusyIntervalRepository;
+import com.scheduler.repository.CalendarSyncStateRepository;
+import com.scheduler.repository.ConnectionRepository;
+import com.scheduler.repository.DayAvailabilityRepository;
+import com.scheduler.repository.EventRepository;
+import com.scheduler.repository.MeetLinkPoolRepository;
+import com.scheduler.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Set-based replacement for JPA cascade deletes on users and events.
+ *
+ * Children are removed with id-chunked bulk DELETEs, each chunk in its own short transaction,
+ * so no entities are loaded and locks are only held per chunk. The parent row is removed last
+ * in a final transaction that also sweeps any children created while the chunks were running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CascadeDeleteService {
+
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final BookingRepository bookingRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final DayAvailabilityRepository dayAvailabilityRepository;
+    private final BusyIntervalRepository busyIntervalRepository;
+    private final CalendarSyncStateRepository calendarSyncStateRepository;
+    private final MeetLinkPoolRepository meetLinkPoolRepository;
+    private final ConnectionRepository connectionRepository;
+    private final GoogleCalendarBatcher googleCalendarBatcher;
+    private final GoogleTokenManager googleTokenManager;
+    private final CalendarWatchService calendarWatchService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.delete.chunk-size:500}")
+    private int chunkSize;
+
+    public void deleteEvent(String eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
+        String hostUserId = event.getUserId();
+        if (event.getGoogleEventId() != null) {
+            deleteCalendarEvents(hostUserId, List.of(event.getGoogleEventId()));
+        }
+
+        int bookings = deleteInChunks(
+                page -> bookingRepository.findIdsByEventId(eventId, page),
+                bookingRepository::deleteAllByIdInBatch
+        );
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.bulkDeleteByEventId(eventId);
+            eventRepository.deleteAllByIdInBatch(List.of(eventId));
+            availabilityRepository.incrementBookingVersionForUser(hostUserId);
+        });
+
+        log.info("Deleted event {} with {} bookings", eventId, bookings);
+    }
+
+    public void deleteUser(String userId) {
+        // Channels and placeholder calendar events need the user's token, so clean them up before the user row goes
+        calendarWatchService.stopChannels(userId);
+        List<String> googleEventIds = new ArrayList<>(eventRepository.findGoogleEventIdsByUserId(userId));
+        googleEventIds.addAll(meetLinkPoolRepository.findGoogleEventIdsByUserId(userId));
+        deleteCalendarEvents(userId, googleEventIds);
+
+        // Dependency order: bookings -> events -> day availability -> availability -> user
+        int bookings = deleteInChunks(
+                page -> bookingRepository.findIdsByHostUserId(userId, page),
+                bookingRepository::deleteAllByIdInBatch
+        );
+        int events = deleteInChunks(
+                page -> eventRepository.findIdsByUserId(userId, page),
+                eventRepository::deleteAllByIdInBatch
+        );
+
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.bulkDeleteByHostUserId(userId);
+            eventRepository.bulkDeleteByUserId(userId);
+            dayAvailabilityRepository.bulkDeleteByUserId(userId);
+            availabilityRepository.bulkDeleteByUserId(userId);
+            busyIntervalRepository.bulkDeleteByUserId(userId);
+            calendarSyncStateRepository.bulkDeleteByUserId(userId);
+            meetLinkPoolRepository.bulkDeleteByUserId(userId);
+            userRepository.bulkDeleteById(userId);
+            // Connection rows stay for the other side's history, but the user leaves the graph after commit
+            for (String counterpartId : connectionRepository.findAcceptedCounterpartIds(userId)) {
+                eventPublisher.publishEvent(new ConnectionChangedEvent(userId, counterpartId, false));
+            }
+        });
+
+        log.info("Deleted user {} with {} events and {} bookings", userId, events, bookings);
+    }
+
+    /**
+     * Remove the calendar events backing permanent Meet links. Best effort: the batcher
+     * coalesces the calls and failures are only logged.
+     */
+    private void deleteCalendarEvents(String userId, List<String> googleEventIds) {
+        if (googleEventIds.isEmpty()) {
+            return;
+        }
+        String accessToken = googleTokenManager.getAccessToken(userId);
+        if (accessToken == null) {
+            return;
+        }
+
+        for (String googleEventId : googleEventIds) {
+            googleCalendarBatcher.deleteEvent(accessToken, googleEventId)
+                    .exceptionally(e -> {
+                        log.warn("Failed to delete calendar event {}: {}", googleEventId, e.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Repeatedly fetch up to chunkSize ids and bulk-delete them, one transaction per chunk.
+     * @return number of rows deleted
+     */
+    private int deleteInChunks(Function<PageRequest, List<String>> nextChunk, Consumer<List<String>> deleteChunk) {
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<String> ids = nextChunk.apply(PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    deleteChunk.accept(ids);
+                }
+                return ids.size();
+            });
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < chunkSize) {
+                return total;
+            }
+        }
+    }
+}
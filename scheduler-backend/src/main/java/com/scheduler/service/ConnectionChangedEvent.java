@@ -0,0 +1,17 @@
+package com.scheduler.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when two users become connected or stop being connected, so the
+ * ConnectionGraphIndex can follow after commit.
+ */
+@Data
+@AllArgsConstructor
+public class ConnectionChangedEvent {
+
+    private String userId1;
+    private String userId2;
+    private boolean connected;
+}
@@ -0,0 +1,117 @@
+package com.scheduler.service;
+
+import com.scheduler.repository.ConnectionPair;
+import com.scheduler.repository.ConnectionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory adjacency sets of accepted connections, so "are these two users connected?" and
+ * mutual-connection questions are answered without a query.
+ *
+ * Loaded at startup and kept current by ConnectionChangedEvent after each commit. Another
+ * instance's changes are picked up by a full reload every
+ * {@code app.connections.index.refresh-interval-ms}.
+ */
+@Service
+@Slf4j
+public class ConnectionGraphIndex {
+
+    private final ConnectionRepository connectionRepository;
+
+    private volatile Map<String, Set<String>> adjacency = new ConcurrentHashMap<>();
+    // Changes committed while a reload runs; replayed onto the new map so none are lost
+    private final Queue<ConnectionChangedEvent> changesDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
+
+    public ConnectionGraphIndex(ConnectionRepository connectionRepository) {
+        this.connectionRepository = connectionRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.connections.index.refresh-interval-ms:60000}",
+            initialDelayString = "${app.connections.index.refresh-interval-ms:60000}")
+    public synchronized void rebuild() {
+        changesDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            List<ConnectionPair> pairs = connectionRepository.findAcceptedPairs();
+            Map<String, Set<String>> rebuilt = new ConcurrentHashMap<>();
+            for (ConnectionPair pair : pairs) {
+                link(rebuilt, pair.getSenderId(), pair.getReceiverId());
+            }
+            adjacency = rebuilt;
+            log.debug("Connection graph index loaded with {} connections", pairs.size());
+        } finally {
+            rebuilding = false;
+        }
+        ConnectionChangedEvent change;
+        while ((change = changesDuringRebuild.poll()) != null) {
+            apply(adjacency, change);
+        }
+    }
+
+    public boolean areConnected(String userId1, String userId2) {
+        return adjacency.getOrDefault(userId1, Collections.emptySet()).contains(userId2);
+    }
+
+    /**
+     * Snapshot of a user's connections, sorted so two lists can be intersected with a merge.
+     */
+    public String[] sortedNeighbours(String userId) {
+        Set<String> neighbours = adjacency.get(userId);
+        if (neighbours == null) {
+            return new String[0];
+        }
+        String[] sorted = neighbours.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // First among the after-commit listeners, so caches evicted after it see the new graph
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onConnectionChanged(ConnectionChangedEvent event) {
+        if (rebuilding) {
+            changesDuringRebuild.add(event);
+        }
+        apply(adjacency, event);
+    }
+
+    private void apply(Map<String, Set<String>> graph, ConnectionChangedEvent event) {
+        if (event.isConnected()) {
+            link(graph, event.getUserId1(), event.getUserId2());
+        } else {
+            unlink(graph, event.getUserId1(), event.getUserId2());
+        }
+    }
+
+    private void link(Map<String, Set<String>> graph, String userId1, String userId2) {
+        graph.computeIfAbsent(userId1, key -> ConcurrentHashMap.newKeySet()).add(userId2);
+        graph.computeIfAbsent(userId2, key -> ConcurrentHashMap.newKeySet()).add(userId1);
+    }
+
+    private void unlink(Map<String, Set<String>> graph, String userId1, String userId2) {
+        graph.computeIfPresent(userId1, (key, neighbours) -> neighbours.remove(userId2) && neighbours.isEmpty() ? null : neighbours);
+        graph.computeIfPresent(userId2, (key, neighbours) -> neighbours.remove(userId1) && neighbours.isEmpty() ? null : neighbours);
+    }
+}
@@ -0,0 +1,17 @@
+package com.scheduler.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a connection row between two users is created, rejected, blocked or removed
+ * without them becoming or ceasing to be connected. The graph is unchanged, but anything
+ * that looks at pending and rejected rows (suggestion exclusions) is stale after commit.
+ */
+@Data
+@AllArgsConstructor
+public class ConnectionRequestChangedEvent {
+
+    private String userId1;
+    private String userId2;
+}
@@ -1,21 +1,38 @@
 package com.scheduler.service;
 
+import com.scheduler.dto.BulkConnectionResultDTO;
 import com.scheduler.dto.ConnectionDTO;
+import com.scheduler.dto.ConnectionPageDTO;
 import com.scheduler.model.Connection;
 import com.scheduler.model.Connection.ConnectionStatus;
 import com.scheduler.model.User;
 import com.scheduler.repository.ConnectionRepository;
+import com.scheduler.repository.ConnectionWithUsers;
 import com.scheduler.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +42,32 @@ public class ConnectionService {
     private final ConnectionRepository connectionRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final ConnectionGraphIndex connectionGraphIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.connections.bulk.max-ids:500}")
+    private int bulkMaxIds;
+
+    @Value("${app.connections.page.max-size:100}")
+    private int maxPageSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPairKeys() {
+        try {
+            int updated = connectionRepository.backfillPairKeys();
+            if (updated > 0) {
+                log.info("Backfilled pair keys for {} connections", updated);
+            }
+            long unkeyed = connectionRepository.countByPairKeyIsNull();
+            if (unkeyed > 0) {
+                log.warn("{} connections have no pair key (duplicate pairs from before it existed); clean them up by hand",
+                        unkeyed);
+            }
+        } catch (DataAccessException e) {
+            // Rows without a key still work; don't take the app down over the one-off fill
+            log.warn("Pair key backfill failed, retrying on next start: {}", e.getMessage());
+        }
+    }
 
     @Transactional
     public ConnectionDTO sendConnectionRequest(String senderId, String receiverId, String message) {
@@ -34,23 +77,34 @@ public class ConnectionService {
         User receiver = userRepository.findById(receiverId)
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
-        // Check if connection already exists (either direction)
-        var existingConnection = connectionRepository.findBySenderIdAndReceiverId(senderId, receiverId);
-        if (existingConnection.isPresent()) {
+        // Legacy rows without a pair key are invisible to the constraint below
+        if (connectionRepository.existsWithoutPairKeyBetween(senderId, receiverId)) {
             throw new RuntimeException("Connection request already exists");
         }
-        var reverseConnection = connectionRepository.findBySenderIdAndReceiverId(receiverId, senderId);
-        if (reverseConnection.isPresent()) {
+
+        Connection savedConnection = new Connection();
+        savedConnection.setId(java.util.UUID.randomUUID().toString());
+        savedConnection.setSenderId(senderId);
+        savedConnection.setReceiverId(receiverId);
+        savedConnection.setPairKey(Connection.pairKeyOf(senderId, receiverId));
+        savedConnection.setMessage(message);
+        savedConnection.setStatus(ConnectionStatus.PENDING);
+        savedConnection.setCreatedAt(LocalDateTime.now());
+        savedConnection.setUpdatedAt(savedConnection.getCreatedAt());
+
+        // The unique pairKey covers both directions, also against a concurrent opposite request
+        int inserted = connectionRepository.insertPendingIfAbsent(
+                savedConnection.getId(),
+                senderId,
+                receiverId,
+                savedConnection.getPairKey(),
+                message,
+                savedConnection.getCreatedAt()
+        );
+        if (inserted == 0) {
             throw new RuntimeException("Connection request already exists");
         }
-
-        Connection connection = new Connection();
-        connection.setSenderId(senderId);
-        connection.setReceiverId(receiverId);
-        connection.setMessage(message);
-        connection.setStatus(ConnectionStatus.PENDING);
-
-        Connection savedConnection = connectionRepository.save(connection);
+        eventPublisher.publishEvent(new ConnectionRequestChangedEvent(senderId, receiverId));
 
         // Send notification email to receiver
         try {
@@ -59,7 +113,7 @@ public class ConnectionService {
             log.error("Failed to send connection request notification", e);
         }
 
-        return convertToDTO(savedConnection);
+        return convertToDTO(savedConnection, sender, receiver);
     }
 
     @Transactional
@@ -80,6 +134,7 @@ public class ConnectionService {
         connection.setConnectedAt(LocalDateTime.now());
 
         Connection acceptedConnection = connectionRepository.save(connection);
+        eventPublisher.publishEvent(new ConnectionChangedEvent(connection.getSenderId(), connection.getReceiverId(), true));
 
         // Send acceptance emails to both parties
         try {
@@ -88,7 +143,7 @@ public class ConnectionService {
             log.error("Failed to send connection acceptance emails", e);
         }
 
-        return convertToDTO(acceptedConnection);
+        return convertToDTO(acceptedConnection, sender, receiver);
     }
 
     @Transactional
@@ -108,6 +163,7 @@ public class ConnectionService {
         connection.setStatus(ConnectionStatus.REJECTED);
 
         Connection rejectedConnection = connectionRepository.save(connection);
+        eventPublisher.publishEvent(new ConnectionRequestChangedEvent(connection.getSenderId(), connection.getReceiverId()));
 
         // Send rejection email to sender
         try {
@@ -116,7 +172,7 @@ public class ConnectionService {
             log.error("Failed to send connection rejection email", e);
         }
 
-        return convertToDTO(rejectedConnection);
+        return convertToDTO(rejectedConnection, sender, receiver);
     }
 
     @Transactional
@@ -124,8 +180,14 @@ public class ConnectionService {
         Connection connection = connectionRepository.findById(connectionId)
                 .orElseThrow(() -> new RuntimeException("Connection not found"));
 
+        boolean wasAccepted = connection.getStatus() == ConnectionStatus.ACCEPTED;
         connection.setStatus(ConnectionStatus.BLOCKED);
         connectionRepository.save(connection);
+        if (wasAccepted) {
+            eventPublisher.publishEvent(new ConnectionChangedEvent(connection.getSenderId(), connection.getReceiverId(), false));
+        } else {
+            eventPublisher.publishEvent(new ConnectionRequestChangedEvent(connection.getSenderId(), connection.getReceiverId()));
+        }
     }
 
     @Transactional
@@ -134,23 +196,164 @@ public class ConnectionService {
                 .orElseThrow(() -> new RuntimeException("Connection not found"));
 
         connectionRepository.delete(connection);
+        if (connection.getStatus() == ConnectionStatus.ACCEPTED) {
+            eventPublisher.publishEvent(new ConnectionChangedEvent(connection.getSenderId(), connection.getReceiverId(), false));
+        } else {
+            eventPublisher.publishEvent(new ConnectionRequestChangedEvent(connection.getSenderId(), connection.getReceiverId()));
+        }
+    }
+
+    /**
+     * Accept every pending request in connectionIds that was sent to userId, with one
+     * update for all rows and one summary email to userId.
+     */
+    @Transactional
+    public BulkConnectionResultDTO acceptConnections(String userId, List<String> connectionIds) {
+        List<Connection> accepted = lockForBulk(connectionIds, connection ->
+                connection.getReceiverId().equals(userId) && connection.getStatus() == ConnectionStatus.PENDING);
+        if (accepted.isEmpty()) {
+            return bulkResult(connectionIds, accepted, Map.of());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        connectionRepository.updateStatusByIdIn(idsOf(accepted), ConnectionStatus.ACCEPTED, now, now);
+        Map<String, User> users = loadUsers(userId, accepted);
+
+        List<User> requesters = new ArrayList<>();
+        for (Connection connection : accepted) {
+            connection.setStatus(ConnectionStatus.ACCEPTED);
+            connection.setConnectedAt(now);
+            connection.setUpdatedAt(now);
+            eventPublisher.publishEvent(new ConnectionChangedEvent(connection.getSenderId(), connection.getReceiverId(), true));
+
+            User requester = users.get(connection.getSenderId());
+            if (requester != null) {
+                requesters.add(requester);
+            }
+        }
+
+        User accepter = users.get(userId);
+        if (accepter != null) {
+            try {
+                emailService.sendConnectionsAcceptedInBulk(accepter, requesters);
+            } catch (Exception e) {
+                log.error("Failed to send bulk connection acceptance emails", e);
+            }
+        }
+
+        log.info("User {} accepted {} connection requests", userId, accepted.size());
+        return bulkResult(connectionIds, accepted, users);
+    }
+
+    /**
+     * Reject every pending request in connectionIds that was sent to userId, with one update for all rows.
+     */
+    @Transactional
+    public BulkConnectionResultDTO rejectConnections(String userId, List<String> connectionIds) {
+        List<Connection> rejected = lockForBulk(connectionIds, connection ->
+                connection.getReceiverId().equals(userId) && connection.getStatus() == ConnectionStatus.PENDING);
+        if (rejected.isEmpty()) {
+            return bulkResult(connectionIds, rejected, Map.of());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        connectionRepository.updateStatusByIdIn(idsOf(rejected), ConnectionStatus.REJECTED, null, now);
+        Map<String, User> users = loadUsers(userId, rejected);
+
+        User receiver = users.get(userId);
+        for (Connection connection : rejected) {
+            connection.setStatus(ConnectionStatus.REJECTED);
+            connection.setUpdatedAt(now);
+            eventPublisher.publishEvent(new ConnectionRequestChangedEvent(connection.getSenderId(), connection.getReceiverId()));
+
+            // Each request has a different sender, so this is already one email per counterparty
+            User sender = users.get(connection.getSenderId());
+            if (sender != null && receiver != null) {
+                try {
+                    emailService.sendConnectionRejectedNotification(connection, sender, receiver);
+                } catch (Exception e) {
+                    log.error("Failed to send connection rejection email", e);
+                }
+            }
+        }
+
+        log.info("User {} rejected {} connection requests", userId, rejected.size());
+        return bulkResult(connectionIds, rejected, users);
+    }
+
+    /**
+     * Delete every connection in connectionIds that userId is part of, in one statement.
+     * Blocks can only be lifted by the user who blocked (the receiver).
+     */
+    @Transactional
+    public BulkConnectionResultDTO removeConnections(String userId, List<String> connectionIds) {
+        List<Connection> removed = lockForBulk(connectionIds, connection ->
+                connection.getStatus() == ConnectionStatus.BLOCKED
+                        ? connection.getReceiverId().equals(userId)
+                        : connection.getSenderId().equals(userId) || connection.getReceiverId().equals(userId));
+        if (removed.isEmpty()) {
+            return bulkResult(connectionIds, removed, Map.of());
+        }
+
+        connectionRepository.deleteByIdIn(idsOf(removed));
+        for (Connection connection : removed) {
+            if (connection.getStatus() == ConnectionStatus.ACCEPTED) {
+                eventPublisher.publishEvent(new ConnectionChangedEvent(connection.getSenderId(), connection.getReceiverId(), false));
+            } else {
+                eventPublisher.publishEvent(new ConnectionRequestChangedEvent(connection.getSenderId(), connection.getReceiverId()));
+            }
+        }
+
+        log.info("User {} removed {} connections", userId, removed.size());
+        return bulkResult(connectionIds, removed, loadUsers(userId, removed));
     }
 
     @Transactional(readOnly = true)
     public List<ConnectionDTO> getAcceptedConnections(String userId) {
-        // Get connections where user is sender
-        List<Connection> asSender = connectionRepository.findBySenderIdAndStatus(userId, ConnectionStatus.ACCEPTED);
-        // Get connections where user is receiver
-        List<Connection> asReceiver = connectionRepository.findByReceiverIdAndStatus(userId, ConnectionStatus.ACCEPTED);
+        return connectionRepository.findWithUsersByUserIdAndStatus(userId, ConnectionStatus.ACCEPTED, Pageable.unpaged())
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
 
-        return Stream.concat(asSender.stream(), asReceiver.stream())
+    /**
+     * One page of accepted connections, most recently connected first. Pages are keyset-based:
+     * the cursor holds the last row's (connectedAt, id), so deep pages cost the same as the first.
+     * Rows without a connectedAt are positioned by createdAt, matching the query order.
+     */
+    @Transactional(readOnly = true)
+    public ConnectionPageDTO getAcceptedConnectionsPage(String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // One extra row tells whether there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<ConnectionWithUsers> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = connectionRepository.findWithUsersByUserIdAndStatus(userId, ConnectionStatus.ACCEPTED, pageable);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = connectionRepository.findWithUsersByUserIdAndStatusAfter(
+                    userId, ConnectionStatus.ACCEPTED, LocalDateTime.parse(position[0]), position[1], pageable);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            ConnectionWithUsers last = rows.get(pageSize - 1);
+            LocalDateTime connectedSince = last.getConnectedAt() != null ? last.getConnectedAt() : last.getCreatedAt();
+            nextCursor = encodeCursor(connectedSince, last.getId());
+        }
+
+        long totalCount = connectionRepository.countByUserIdAndStatus(userId, ConnectionStatus.ACCEPTED);
+        List<ConnectionDTO> connections = rows.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return new ConnectionPageDTO(connections, totalCount, nextCursor);
     }
 
     @Transactional(readOnly = true)
     public List<ConnectionDTO> getPendingSentConnections(String userId) {
-        return connectionRepository.findBySenderIdAndStatus(userId, ConnectionStatus.PENDING)
+        return connectionRepository.findWithUsersBySenderIdAndStatus(userId, ConnectionStatus.PENDING)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -158,7 +361,7 @@ public class ConnectionService {
 
     @Transactional(readOnly = true)
     public List<ConnectionDTO> getPendingReceivedConnections(String userId) {
-        return connectionRepository.findByReceiverIdAndStatus(userId, ConnectionStatus.PENDING)
+        return connectionRepository.findWithUsersByReceiverIdAndStatus(userId, ConnectionStatus.PENDING)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -167,20 +370,62 @@ public class ConnectionService {
     @Transactional(readOnly = true)
     public List<ConnectionDTO> getBlockedConnections(String userId) {
         // Get connections where user blocked someone (as receiver)
-        List<Connection> blockedConnections = connectionRepository.findByReceiverIdAndStatus(userId, ConnectionStatus.BLOCKED);
-
-        return blockedConnections.stream()
+        return connectionRepository.findWithUsersByReceiverIdAndStatus(userId, ConnectionStatus.BLOCKED)
+                .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
+    // Answered from memory; no transaction or connection needed. Changes made on other instances
+    // show up after the next index refresh (app.connections.index.refresh-interval-ms).
     public boolean areConnected(String userId1, String userId2) {
-        var connection = connectionRepository.findConnectionBetweenUsers(userId1, userId2, ConnectionStatus.ACCEPTED);
-        return connection.isPresent();
+        return connectionGraphIndex.areConnected(userId1, userId2);
+    }
+
+    private List<Connection> lockForBulk(List<String> connectionIds, Predicate<Connection> allowed) {
+        if (connectionIds == null || connectionIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> ids = new LinkedHashSet<>(connectionIds);
+        if (ids.size() > bulkMaxIds) {
+            throw new RuntimeException("At most " + bulkMaxIds + " connections can be changed at once");
+        }
+        return connectionRepository.findAllByIdForUpdate(ids)
+                .stream()
+                .filter(allowed)
+                .collect(Collectors.toList());
+    }
+
+    private Set<String> idsOf(List<Connection> connections) {
+        return connections.stream().map(Connection::getId).collect(Collectors.toSet());
     }
 
-    private ConnectionDTO convertToDTO(Connection connection) {
+    // The acting user plus every counterparty, in one query
+    private Map<String, User> loadUsers(String userId, List<Connection> connections) {
+        Set<String> userIds = new HashSet<>();
+        userIds.add(userId);
+        for (Connection connection : connections) {
+            userIds.add(connection.getSenderId());
+            userIds.add(connection.getReceiverId());
+        }
+        return userRepository.findAllById(userIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private BulkConnectionResultDTO bulkResult(List<String> requestedIds, List<Connection> changed, Map<String, User> users) {
+        Set<String> changedIds = idsOf(changed);
+        List<String> skippedIds = requestedIds == null ? new ArrayList<>() : requestedIds.stream()
+                .distinct()
+                .filter(id -> !changedIds.contains(id))
+                .collect(Collectors.toList());
+        List<ConnectionDTO> updated = changed.stream()
+                .map(connection -> convertToDTO(connection, users.get(connection.getSenderId()), users.get(connection.getReceiverId())))
+                .collect(Collectors.toList());
+        return new BulkConnectionResultDTO(updated, skippedIds);
+    }
+
+    private ConnectionDTO convertToDTO(Connection connection, User sender, User receiver) {
         ConnectionDTO dto = new ConnectionDTO();
         dto.setId(connection.getId());
         dto.setSenderId(connection.getSenderId());
@@ -190,24 +435,50 @@ public class ConnectionService {
         dto.setConnectedAt(connection.getConnectedAt());
         dto.setCreatedAt(connection.getCreatedAt());
         dto.setUpdatedAt(connection.getUpdatedAt());
+        if (sender != null) {
+            dto.setSenderName(sender.getName());
+            dto.setSenderEmail(sender.getEmail());
+        }
+        if (receiver != null) {
+            dto.setReceiverName(receiver.getName());
+            dto.setReceiverEmail(receiver.getEmail());
+        }
+        return dto;
+    }
 
-        // Fetch user details
-        try {
-            User sender = userRepository.findById(connection.getSenderId()).orElse(null);
-            if (sender != null) {
-                dto.setSenderName(sender.getName());
-                dto.setSenderEmail(sender.getEmail());
-            }
+    private ConnectionDTO convertToDTO(ConnectionWithUsers row) {
+        return new ConnectionDTO(
+                row.getId(),
+                row.getSenderId(),
+                row.getSenderName(),
+                row.getSenderEmail(),
+                row.getReceiverId(),
+                row.getReceiverName(),
+                row.getReceiverEmail(),
+                row.getStatus(),
+                row.getMessage(),
+                row.getConnectedAt(),
+                row.getCreatedAt(),
+                row.getUpdatedAt()
+        );
+    }
 
-            User receiver = userRepository.findById(connection.getReceiverId()).orElse(null);
-            if (receiver != null) {
-                dto.setReceiverName(receiver.getName());
-                dto.setReceiverEmail(receiver.getEmail());
+    private String encodeCursor(LocalDateTime connectedAt, String id) {
+        String position = connectedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            LocalDateTime.parse(parts[0]);
+            if (parts.length != 2 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException();
             }
+            return parts;
         } catch (Exception e) {
-            log.error("Failed to fetch user details for connection", e);
+            throw new RuntimeException("Invalid cursor");
         }
-
-        return dto;
     }
 }
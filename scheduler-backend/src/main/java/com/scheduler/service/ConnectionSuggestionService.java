@@ -0,0 +1,202 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.ConnectionSuggestionDTO;
+import com.scheduler.model.User;
+import com.scheduler.repository.ConnectionRepository;
+import com.scheduler.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mutual connection counts and "people you may know", computed over ConnectionGraphIndex.
+ *
+ * Mutual counts merge the two users' sorted neighbour arrays. Suggestions count, for every
+ * friend-of-a-friend, how many of the user's connections they share, and keep the best
+ * {@code app.connections.suggestions.max-results} in a bounded min-heap. Suggestion lists are
+ * cached per user and dropped when a connection within two hops changes, when a request to or
+ * from the user is sent, rejected or removed, or after
+ * {@code app.connections.suggestions.cache-ttl-seconds}. A list computed while its entry was
+ * evicted is served once but not cached. At most {@code cache-max-entries} lists are kept;
+ * beyond that suggestions are computed per call until expired entries are swept.
+ */
+@Service
+public class ConnectionSuggestionService {
+
+    private static final Comparator<Map.Entry<String, Integer>> BY_MUTUAL_COUNT =
+            Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+
+    private final ConnectionGraphIndex connectionGraphIndex;
+    private final ConnectionRepository connectionRepository;
+    private final UserRepository userRepository;
+
+    private final Map<String, CachedSuggestions> cache = new ConcurrentHashMap<>();
+
+    @Value("${app.connections.suggestions.max-results:50}")
+    private int maxResults;
+
+    @Value("${app.connections.suggestions.cache-ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.connections.suggestions.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    public ConnectionSuggestionService(ConnectionGraphIndex connectionGraphIndex,
+                                       ConnectionRepository connectionRepository,
+                                       UserRepository userRepository) {
+        this.connectionGraphIndex = connectionGraphIndex;
+        this.connectionRepository = connectionRepository;
+        this.userRepository = userRepository;
+    }
+
+    public int countMutualConnections(String userId1, String userId2) {
+        String[] a = connectionGraphIndex.sortedNeighbours(userId1);
+        String[] b = connectionGraphIndex.sortedNeighbours(userId2);
+        int i = 0;
+        int j = 0;
+        int mutual = 0;
+        while (i < a.length && j < b.length) {
+            int cmp = a[i].compareTo(b[j]);
+            if (cmp == 0) {
+                mutual++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return mutual;
+    }
+
+    public List<ConnectionSuggestionDTO> getSuggestions(String userId, int limit) {
+        CachedSuggestions cached = cache.get(userId);
+        List<ConnectionSuggestionDTO> suggestions;
+        if (cached != null && cached.suggestions != null && !cached.isExpired(cacheTtlSeconds)) {
+            suggestions = cached.suggestions;
+        } else if (cached == null && cache.size() >= cacheMaxEntries) {
+            suggestions = computeSuggestions(userId);
+        } else {
+            suggestions = computeAndCache(userId);
+        }
+        return suggestions.subList(0, Math.min(Math.max(0, limit), suggestions.size()));
+    }
+
+    private List<ConnectionSuggestionDTO> computeAndCache(String userId) {
+        // Reserve the entry first: an eviction while computing removes the reservation, so the
+        // replace below fails instead of putting a list that predates the change back
+        CachedSuggestions reservation = new CachedSuggestions(null);
+        cache.put(userId, reservation);
+        List<ConnectionSuggestionDTO> suggestions;
+        try {
+            suggestions = computeSuggestions(userId);
+        } catch (RuntimeException e) {
+            cache.remove(userId, reservation);
+            throw e;
+        }
+        cache.replace(userId, reservation, new CachedSuggestions(suggestions));
+        return suggestions;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        cache.values().removeIf(cached -> cached.isExpired(cacheTtlSeconds));
+    }
+
+    // Runs after ConnectionGraphIndex has applied the change, so a new link's neighbours are evicted too
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onConnectionChanged(ConnectionChangedEvent event) {
+        // Anyone within two hops of the changed pair may see different suggestions
+        for (String userId : List.of(event.getUserId1(), event.getUserId2())) {
+            cache.remove(userId);
+            for (String neighbour : connectionGraphIndex.sortedNeighbours(userId)) {
+                cache.remove(neighbour);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConnectionRequestChanged(ConnectionRequestChangedEvent event) {
+        // Only the two users' excluded candidates change
+        cache.remove(event.getUserId1());
+        cache.remove(event.getUserId2());
+    }
+
+    private List<ConnectionSuggestionDTO> computeSuggestions(String userId) {
+        String[] friends = connectionGraphIndex.sortedNeighbours(userId);
+        if (friends.length == 0) {
+            return List.of();
+        }
+
+        // Pending, rejected and blocked rows rule a candidate out as well as accepted ones
+        Set<String> excluded = new HashSet<>(connectionRepository.findCounterpartIds(userId));
+        excluded.addAll(Arrays.asList(friends));
+        excluded.add(userId);
+
+        Map<String, Integer> mutualCounts = new HashMap<>();
+        for (String friend : friends) {
+            for (String candidate : connectionGraphIndex.sortedNeighbours(friend)) {
+                if (!excluded.contains(candidate)) {
+                    mutualCounts.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+
+        // Min-heap of the best maxResults candidates; the weakest is evicted first
+        PriorityQueue<Map.Entry<String, Integer>> best = new PriorityQueue<>(BY_MUTUAL_COUNT);
+        for (Map.Entry<String, Integer> entry : mutualCounts.entrySet()) {
+            best.offer(entry);
+            if (best.size() > maxResults) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(best);
+        ranked.sort(BY_MUTUAL_COUNT.reversed());
+
+        Map<String, User> users = userRepository.findAllById(ranked.stream().map(Map.Entry::getKey).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<ConnectionSuggestionDTO> suggestions = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, Integer> entry : ranked) {
+            User user = users.get(entry.getKey());
+            if (user != null) {
+                suggestions.add(new ConnectionSuggestionDTO(
+                        user.getId(), user.getName(), user.getUsername(), user.getImageUrl(), entry.getValue()));
+            }
+        }
+        return suggestions;
+    }
+
+    private static class CachedSuggestions {
+        private final List<ConnectionSuggestionDTO> suggestions; // null while being computed
+        private final long computedAt = System.currentTimeMillis();
+
+        CachedSuggestions(List<ConnectionSuggestionDTO> suggestions) {
+            this.suggestions = suggestions;
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - computedAt > ttlSeconds * 1000;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.scheduler.service;
+
+/**
+ * Published when EmailServiceImpl writes outbox rows, so the dispatcher can run right after commit.
+ */
+public class EmailEnqueuedEvent {
+}
@@ -0,0 +1,305 @@
+package com.scheduler.service;
+
+import com.scheduler.model.EmailOutbox;
+import com.scheduler.model.EmailOutbox.EmailOutboxStatus;
+import com.scheduler.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers EmailOutbox rows.
+ *
+ * Due rows are claimed in batches with SELECT ... FOR UPDATE SKIP LOCKED and leased (status
+ * SENDING, lockedUntil) in one short transaction, then sent on emailTaskExecutor with at most
+ * {@code app.email.outbox.concurrency} sends in flight, over connections kept open by
+ * SmtpConnectionPool. Rows over the EmailRateLimiter budget stay PENDING with a later
+ * nextAttemptAt, so the table itself is the delay queue, and no attempt is used up. Failures
+ * are retried with jittered exponential backoff until {@code app.email.outbox.max-attempts},
+ * after which the row is marked DEAD. A lease that runs out (e.g. the process died mid-send)
+ * makes the row claimable again.
+ */
+@Service
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final SmtpConnectionPool smtpConnectionPool;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final Executor emailTaskExecutor;
+    private final EmailRateLimiter emailRateLimiter;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Counter throttledCounter;
+    private final Counter rejectedCounter;
+    private final Timer deliveryLatency;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+    // Set when a claim was cut short by busy send slots; the next completion re-runs dispatch
+    private final AtomicBoolean starved = new AtomicBoolean();
+    private final Semaphore sendPermits;
+
+    @Value("${app.email.from}")
+    private String fromEmail;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 SmtpConnectionPool smtpConnectionPool,
+                                 TransactionTemplate transactionTemplate,
+                                 TaskScheduler taskScheduler,
+                                 @Qualifier("emailTaskExecutor") Executor emailTaskExecutor,
+                                 EmailRateLimiter emailRateLimiter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.email.outbox.concurrency:5}") int concurrency) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.smtpConnectionPool = smtpConnectionPool;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.emailTaskExecutor = emailTaskExecutor;
+        this.emailRateLimiter = emailRateLimiter;
+        this.sendPermits = new Semaphore(Math.max(1, concurrency));
+
+        this.sentCounter = Counter.builder("email.outbox.sent")
+                .description("Emails handed to the SMTP server")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed")
+                .description("Send attempts that failed and were rescheduled")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("email.outbox.dead")
+                .description("Emails given up on after the last attempt")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("email.outbox.throttled")
+                .description("Claimed emails deferred by the send rate limit")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("email.outbox.executor.rejected")
+                .description("Claimed emails the send executor refused; retried after their lease")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("email.outbox.delivery.latency")
+                .description("Time from the outbox row being written to the SMTP server accepting it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        // Queue depth is read from the table on each scrape
+        Gauge.builder("email.outbox.pending", emailOutboxRepository,
+                        repository -> repository.countByStatus(EmailOutboxStatus.PENDING))
+                .description("Emails waiting to be sent, including scheduled retries")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.dead.total", emailOutboxRepository,
+                        repository -> repository.countByStatus(EmailOutboxStatus.DEAD))
+                .description("Emails in the dead-letter state")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.in-flight", sendPermits,
+                        permits -> Math.max(1, concurrency) - permits.availablePermits())
+                .description("Emails currently being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * New rows were committed; dispatch now instead of waiting for the next poll.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmailEnqueued(EmailEnqueuedEvent event) {
+        wakeUp();
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}", initialDelay = 10000)
+    public void poll() {
+        wakeUp();
+    }
+
+    private void wakeUp() {
+        wakeRequested.set(true);
+        if (!running.get()) {
+            taskScheduler.schedule(this::dispatch, Instant.now());
+        }
+    }
+
+    private void dispatch() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (wakeRequested.getAndSet(false)) {
+                while (claimAndSubmit()) {
+                    // Keep draining while full batches come back
+                }
+            }
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+        // A wake-up that raced with the end of this run
+        if (wakeRequested.get()) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Claim up to one batch, limited by free send slots, and hand each row to the executor.
+     * @return true if the batch was full, so more rows may be due
+     */
+    private boolean claimAndSubmit() {
+        int available = Math.min(batchSize, sendPermits.availablePermits());
+        if (available == 0) {
+            starved.set(true);
+            return false;
+        }
+
+        AtomicLong earliestDeferralMs = new AtomicLong(Long.MAX_VALUE);
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> rows = emailOutboxRepository.findClaimable(now, PageRequest.of(0, available));
+            for (EmailOutbox row : rows) {
+                long waitMs = emailRateLimiter.tryAcquire(row.getRecipient());
+                if (waitMs > 0) {
+                    // Over the rate limit: back into the queue at the time a token is due
+                    row.setStatus(EmailOutboxStatus.PENDING);
+                    row.setLockedUntil(null);
+                    row.setNextAttemptAt(now.plusNanos(waitMs * 1_000_000));
+                    earliestDeferralMs.accumulateAndGet(waitMs, Math::min);
+                    continue;
+                }
+                row.setStatus(EmailOutboxStatus.SENDING);
+                row.setLockedUntil(now.plusSeconds(leaseSeconds));
+                row.setAttempts(row.getAttempts() + 1);
+            }
+            return rows;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return false;
+        }
+
+        List<EmailOutbox> batch = claimed.stream()
+                .filter(row -> row.getStatus() == EmailOutboxStatus.SENDING)
+                .toList();
+        int deferred = claimed.size() - batch.size();
+        if (deferred > 0) {
+            throttledCounter.increment(deferred);
+            // Run again when the first deferred row is due rather than at the next poll
+            taskScheduler.schedule(this::wakeUp, Instant.now().plusMillis(earliestDeferralMs.get()));
+        }
+
+        for (EmailOutbox row : batch) {
+            sendPermits.acquireUninterruptibly();
+            try {
+                emailTaskExecutor.execute(() -> {
+                    try {
+                        send(row);
+                    } finally {
+                        sendPermits.release();
+                        if (starved.getAndSet(false)) {
+                            wakeUp();
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Lease expiry returns the row to the queue
+                sendPermits.release();
+                rejectedCounter.increment();
+                log.warn("Email executor rejected outbox row {}: {}", row.getId(), e.getMessage());
+            }
+        }
+        return claimed.size() == available && deferred == 0;
+    }
+
+    private void send(EmailOutbox row) {
+        try {
+            smtpConnectionPool.send(toMimeMessage(row));
+            LocalDateTime sentAt = LocalDateTime.now();
+            emailOutboxRepository.markSent(row.getId(), sentAt);
+            sentCounter.increment();
+            if (row.getCreatedAt() != null) {
+                deliveryLatency.record(Duration.between(row.getCreatedAt(), sentAt));
+            }
+            log.info("Sent email '{}' to {}", row.getSubject(), row.getRecipient());
+        } catch (Exception e) {
+            boolean dead = row.getAttempts() >= maxAttempts;
+            long ceiling = Math.min(maxBackoffSeconds,
+                    initialBackoffSeconds << Math.min(20, Math.max(0, row.getAttempts() - 1)));
+            // Anywhere from half to the full backoff, so a quota burst does not retry in lockstep
+            long backoff = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling - ceiling / 2 + 1);
+            // Dead rows keep the time of their last attempt, which EmailOutboxPurger measures retention from
+            LocalDateTime now = LocalDateTime.now();
+            emailOutboxRepository.markFailed(
+                    row.getId(),
+                    dead ? EmailOutboxStatus.DEAD : EmailOutboxStatus.PENDING,
+                    dead ? now : now.plusSeconds(backoff),
+                    e.getMessage()
+            );
+            if (dead) {
+                deadCounter.increment();
+                log.error("Giving up on email to {} after {} attempts: {}",
+                        row.getRecipient(), row.getAttempts(), e.getMessage());
+            } else {
+                failedCounter.increment();
+                log.warn("Email to {} failed (attempt {}), retrying in {}s: {}",
+                        row.getRecipient(), row.getAttempts(), backoff, e.getMessage());
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox row) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(row.getRecipient());
+        helper.setSubject(row.getSubject());
+        helper.setText(row.getHtmlBody(), true); // true = HTML
+
+        if (row.getAttachmentContent() != null) {
+            byte[] attachment = row.getAttachmentContent().getBytes(StandardCharsets.UTF_8);
+            helper.addAttachment(row.getAttachmentName(), () -> new ByteArrayInputStream(attachment),
+                    row.getAttachmentContentType());
+        }
+        return message;
+    }
+}
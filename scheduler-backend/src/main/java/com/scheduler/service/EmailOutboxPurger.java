@@ -0,0 +1,70 @@
+package com.scheduler.service;
+
+import com.scheduler.model.EmailOutbox.EmailOutboxStatus;
+import com.scheduler.repository.EmailOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Removes finished EmailOutbox rows so the table (and the claim query's index) only holds
+ * live mail. SENT rows are kept for {@code app.email.outbox.sent-retention-days}, DEAD rows
+ * for {@code app.email.outbox.dead-retention-days}, counted from their last attempt. Rows
+ * go in id chunks, one short transaction each, so the dispatcher is never blocked for long.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxPurger {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.email.outbox.sent-retention-days:7}")
+    private long sentRetentionDays;
+
+    @Value("${app.email.outbox.dead-retention-days:30}")
+    private long deadRetentionDays;
+
+    @Value("${app.email.outbox.purge-chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${app.email.outbox.purge-interval-ms:3600000}", initialDelay = 300000)
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int sent = purge(EmailOutboxStatus.SENT, now.minusDays(sentRetentionDays));
+        int dead = purge(EmailOutboxStatus.DEAD, now.minusDays(deadRetentionDays));
+        if (sent + dead > 0) {
+            log.info("Purged {} sent and {} dead outbox emails", sent, dead);
+        }
+    }
+
+    /**
+     * @return number of rows deleted
+     */
+    int purge(EmailOutboxStatus status, LocalDateTime before) {
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(tx -> {
+                List<String> ids = emailOutboxRepository.findIdsByStatusAttemptedBefore(
+                        status, before, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    emailOutboxRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < chunkSize) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.scheduler.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets in front of the SMTP sender: one global bucket for the provider quota and one
+ * per recipient domain, so a burst to a single domain cannot trip its inbound throttling.
+ * A send takes one token from both buckets or from neither.
+ */
+@Service
+public class EmailRateLimiter {
+
+    // Domain buckets that refilled completely are dropped once the map grows past this
+    private static final int MAX_TRACKED_DOMAINS = 10_000;
+
+    @Value("${app.email.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.email.rate-limit.global-per-second:10}")
+    private double globalPerSecond;
+
+    @Value("${app.email.rate-limit.global-burst:20}")
+    private double globalBurst;
+
+    @Value("${app.email.rate-limit.per-domain-per-second:2}")
+    private double perDomainPerSecond;
+
+    @Value("${app.email.rate-limit.per-domain-burst:10}")
+    private double perDomainBurst;
+
+    // Guarded by this
+    private TokenBucket global;
+    private final Map<String, TokenBucket> domains = new HashMap<>();
+
+    /**
+     * Take a token for one email to this recipient.
+     * @return 0 if the email may be sent now, otherwise the milliseconds until it may be retried
+     */
+    public synchronized long tryAcquire(String recipient) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (global == null) {
+            global = new TokenBucket(globalBurst, globalPerSecond, now);
+        }
+        if (domains.size() > MAX_TRACKED_DOMAINS) {
+            domains.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        TokenBucket domain = domains.computeIfAbsent(domainOf(recipient),
+                key -> new TokenBucket(perDomainBurst, perDomainPerSecond, now));
+
+        long waitNanos = Math.max(global.nanosUntilToken(now), domain.nanosUntilToken(now));
+        if (waitNanos > 0) {
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        global.take();
+        domain.take();
+        return 0;
+    }
+
+    private String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return (at >= 0 ? recipient.substring(at + 1) : recipient).toLowerCase(Locale.ROOT);
+    }
+
+    private static class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double capacity, double perSecond, long now) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = this.capacity;
+            this.refilledAt = now;
+        }
+
+        long nanosUntilToken(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        void take() {
+            tokens -= 1;
+        }
+
+        boolean isFull(long now) {
+            return tokens + (now - refilledAt) * tokensPerNano >= capacity;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.scheduler.service;
 import com.scheduler.model.Booking;
 import com.scheduler.model.Connection;
 import com.scheduler.model.MeetingRequest;
+import com.scheduler.model.NotificationDigestEntry;
 import com.scheduler.model.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface EmailService {
 
     /**
@@ -20,11 +24,19 @@ public interface EmailService {
     void sendBookingNotificationToCreator(Booking booking);
 
     /**
-     * Send both confirmation and notification emails asynchronously
+     * Queue both confirmation and notification emails; they are sent after the caller's transaction commits
      * @param booking The created booking
      */
     void sendBookingEmails(Booking booking);
 
+    /**
+     * Send the updated invite (same UID, the booking's new SEQUENCE) to the attendee and the event creator
+     * @param booking The booking with its new times
+     * @param previousStart Start time before the change
+     * @param previousEnd End time before the change
+     */
+    void sendBookingRescheduledEmails(Booking booking, LocalDateTime previousStart, LocalDateTime previousEnd);
+
     /**
      * Send booking cancellation email
      * @param booking The cancelled booking
@@ -71,6 +83,14 @@ public interface EmailService {
      */
     void sendConnectionAcceptedNotification(Connection connection, User sender, User receiver);
 
+    /**
+     * Send the notifications for a bulk accept: the usual accepted email to each requester,
+     * and a single summary to the accepting user instead of one email per connection
+     * @param accepter The user who accepted the requests
+     * @param requesters The users whose requests were accepted
+     */
+    void sendConnectionsAcceptedInBulk(User accepter, List<User> requesters);
+
     /**
      * Send connection rejected notification to sender
      * @param connection The rejected connection
@@ -78,4 +98,13 @@ public interface EmailService {
      * @param receiver The user who rejected the request
      */
     void sendConnectionRejectedNotification(Connection connection, User sender, User receiver);
+
+    /**
+     * Send one email summarizing buffered notifications. Unlike the other methods this
+     * throws on failure, so the caller can keep the entries for the next attempt.
+     * @param recipient The recipient's email address
+     * @param recipientName The recipient's display name, may be null
+     * @param entries The buffered notifications, oldest first
+     */
+    void sendNotificationDigest(String recipient, String recipientName, List<NotificationDigestEntry> entries);
 }
@@ -1,86 +1,85 @@
 package com.scheduler.service;
 
 import com.scheduler.model.Booking;
+import com.scheduler.model.EmailOutbox;
 import com.scheduler.model.Event;
 import com.scheduler.model.MeetingRequest;
+import com.scheduler.model.NotificationDigestEntry;
+import com.scheduler.model.NotificationDigestEntry.DigestKind;
 import com.scheduler.model.User;
-import com.scheduler.repository.BookingRepository;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.scheduler.repository.EmailOutboxRepository;
+import com.scheduler.repository.EventRepository;
+import com.scheduler.repository.NotificationDigestRepository;
+import com.scheduler.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
+/**
+ * Renders emails and writes them to the EmailOutbox in the caller's transaction;
+ * EmailOutboxDispatcher does the actual sending.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-    private final BookingRepository bookingRepository;
-
-    @Value("${app.email.from}")
-    private String fromEmail;
+    private final EmailTemplateRenderer emailTemplateRenderer;
+    private final IcsWriter icsWriter;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final NotificationDigestRepository notificationDigestRepository;
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.email.enabled:true}")
     private boolean emailEnabled;
 
+    // Buffer host booking and connection request notifications into digests (NotificationDigestService)
+    @Value("${app.email.digest.enabled:false}")
+    private boolean digestEnabled;
+
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
     private static final DateTimeFormatter TIME_FORMATTER =
             DateTimeFormatter.ofPattern("h:mm a");
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendBookingEmails(Booking booking) {
         try {
-            // Add a small delay to ensure transaction is committed
-            Thread.sleep(500);
-
-            // Fetch booking with all relationships loaded
-            Booking fullBooking = bookingRepository.findByIdWithRelations(booking.getId())
-                    .orElseThrow(() -> new RuntimeException("Booking not found: " + booking.getId()));
-
-            // Verify relationships are loaded
-            if (fullBooking.getEvent() == null) {
+            // Runs inside the booking transaction, so the new booking is visible without re-fetching
+            Event event = eventRepository.findById(booking.getEventId()).orElse(null);
+            if (event == null) {
                 log.error("Event is null for booking: {}", booking.getId());
                 return;
             }
-            if (fullBooking.getEvent().getUser() == null) {
+            User creator = userRepository.findById(event.getUserId()).orElse(null);
+            if (creator == null) {
                 log.error("Event creator is null for booking: {}", booking.getId());
                 return;
             }
 
-            // Send emails synchronously (we're already in async context)
-            sendBookingConfirmationEmail(fullBooking);
-            sendBookingNotificationEmail(fullBooking);
-        } catch (InterruptedException e) {
-            log.error("Thread interrupted while sending booking emails", e);
-            Thread.currentThread().interrupt();
+            sendBookingConfirmationEmail(booking, event, creator);
+            sendBookingNotificationEmail(booking, event, creator);
         } catch (Exception e) {
-            log.error("Failed to send booking emails: {}", e.getMessage(), e);
+            log.error("Failed to queue booking emails: {}", e.getMessage(), e);
         }
     }
 
-    private void sendBookingConfirmationEmail(Booking booking) {
+    private void sendBookingConfirmationEmail(Booking booking, Event event, User creator) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping confirmation to: {}", booking.getEmail());
             return;
         }
 
         try {
-            Event event = booking.getEvent();
-            User creator = event.getUser();
 
             Context context = new Context();
             context.setVariable("attendeeName", booking.getName());
@@ -95,12 +94,12 @@ public class EmailServiceImpl implements EmailService {
             context.setVariable("additionalInfo", booking.getAdditionalInfo());
             context.setVariable("bookingId", booking.getId());
 
-            String htmlContent = templateEngine.process("booking-confirmation", context);
+            String htmlContent = emailTemplateRenderer.render("booking-confirmation", context);
 
             // Generate ICS calendar file
-            String icsContent = generateICSFile(booking);
+            String icsContent = icsWriter.write(bookingInvite(booking, event, creator, IcsWriter.Method.REQUEST));
 
-            sendEmailWithAttachment(
+            enqueueEmailWithAttachment(
                     booking.getEmail(),
                     "Booking Confirmed: " + event.getTitle(),
                     htmlContent,
@@ -108,23 +107,30 @@ public class EmailServiceImpl implements EmailService {
                     "event.ics"
             );
 
-            log.info("Sent booking confirmation with calendar invite to: {}", booking.getEmail());
+            log.info("Queued booking confirmation with calendar invite to: {}", booking.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send confirmation email to: {}. Error: {}",
+            log.error("Failed to queue confirmation email to: {}. Error: {}",
                     booking.getEmail(), e.getMessage(), e);
         }
     }
 
-    private void sendBookingNotificationEmail(Booking booking) {
+    private void sendBookingNotificationEmail(Booking booking, Event event, User creator) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping notification to creator");
             return;
         }
 
         try {
-            Event event = booking.getEvent();
-            User creator = event.getUser();
+            if (digestEnabled) {
+                bufferForDigest(creator, DigestKind.BOOKING,
+                        booking.getName() + " booked " + event.getTitle(),
+                        booking.getStartTime().format(DATE_FORMATTER) + ", "
+                                + booking.getStartTime().format(TIME_FORMATTER) + " - "
+                                + booking.getEndTime().format(TIME_FORMATTER));
+                log.info("Buffered booking notification for digest to creator: {}", creator.getEmail());
+                return;
+            }
 
             Context context = new Context();
             context.setVariable("creatorName", creator.getName());
@@ -137,121 +143,225 @@ public class EmailServiceImpl implements EmailService {
             context.setVariable("meetLink", booking.getMeetLink());
             context.setVariable("additionalInfo", booking.getAdditionalInfo());
 
-            String htmlContent = templateEngine.process("booking-notification", context);
+            String htmlContent = emailTemplateRenderer.render("booking-notification", context);
 
-            sendEmail(
+            enqueueEmail(
                     creator.getEmail(),
                     "New Booking: " + booking.getName() + " - " + event.getTitle(),
                     htmlContent
             );
 
-            log.info("Sent booking notification to creator: {}", creator.getEmail());
+            log.info("Queued booking notification to creator: {}", creator.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send notification email to creator. Error: {}",
+            log.error("Failed to queue notification email to creator. Error: {}",
                     e.getMessage(), e);
         }
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendBookingConfirmationToAttendee(Booking booking) {
-        sendBookingConfirmationEmail(booking);
+        Event event = eventRepository.findById(booking.getEventId()).orElse(null);
+        User creator = event != null ? userRepository.findById(event.getUserId()).orElse(null) : null;
+        if (creator == null) {
+            log.error("Event or creator missing for booking: {}", booking.getId());
+            return;
+        }
+        sendBookingConfirmationEmail(booking, event, creator);
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendBookingNotificationToCreator(Booking booking) {
-        sendBookingNotificationEmail(booking);
+        Event event = eventRepository.findById(booking.getEventId()).orElse(null);
+        User creator = event != null ? userRepository.findById(event.getUserId()).orElse(null) : null;
+        if (creator == null) {
+            log.error("Event or creator missing for booking: {}", booking.getId());
+            return;
+        }
+        sendBookingNotificationEmail(booking, event, creator);
     }
 
     @Override
-    @Async("emailTaskExecutor")
-    public void sendCancellationEmail(Booking booking) {
-        // Future implementation for cancellation emails
-        log.info("Cancellation email not yet implemented");
-    }
+    public void sendBookingRescheduledEmails(Booking booking, LocalDateTime previousStart, LocalDateTime previousEnd) {
+        if (!emailEnabled) {
+            log.info("Email disabled. Skipping reschedule emails for booking: {}", booking.getId());
+            return;
+        }
+
+        try {
+            Event event = eventRepository.findById(booking.getEventId()).orElse(null);
+            User creator = event != null ? userRepository.findById(event.getUserId()).orElse(null) : null;
+            if (creator == null) {
+                log.error("Event or creator missing for booking: {}", booking.getId());
+                return;
+            }
+
+            // Same UID with the bumped SEQUENCE moves the existing calendar entry
+            String icsContent = icsWriter.write(bookingInvite(booking, event, creator, IcsWriter.Method.REQUEST));
 
-    private void sendEmail(String to, String subject, String htmlContent)
-            throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            Context context = new Context();
+            context.setVariable("eventTitle", event.getTitle());
+            context.setVariable("previousDate", previousStart.format(DATE_FORMATTER));
+            context.setVariable("previousStartTime", previousStart.format(TIME_FORMATTER));
+            context.setVariable("previousEndTime", previousEnd.format(TIME_FORMATTER));
+            context.setVariable("date", booking.getStartTime().format(DATE_FORMATTER));
+            context.setVariable("startTime", booking.getStartTime().format(TIME_FORMATTER));
+            context.setVariable("endTime", booking.getEndTime().format(TIME_FORMATTER));
+            context.setVariable("meetLink", booking.getMeetLink());
+            String subject = "Booking Rescheduled: " + event.getTitle();
 
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true); // true = HTML
+            context.setVariable("recipientName", booking.getName());
+            context.setVariable("otherPartyName", creator.getName());
+            enqueueEmailWithAttachment(booking.getEmail(), subject,
+                    emailTemplateRenderer.render("booking-rescheduled", context), icsContent, "event.ics");
 
-        mailSender.send(message);
+            context.setVariable("recipientName", creator.getName());
+            context.setVariable("otherPartyName", booking.getName());
+            enqueueEmailWithAttachment(creator.getEmail(), subject,
+                    emailTemplateRenderer.render("booking-rescheduled", context), icsContent, "event.ics");
+
+            log.info("Queued reschedule emails for booking: {}", booking.getId());
+
+        } catch (Exception e) {
+            log.error("Failed to queue reschedule emails for booking: {}. Error: {}",
+                    booking.getId(), e.getMessage(), e);
+        }
     }
 
-    private void sendEmailWithAttachment(String to, String subject, String htmlContent,
-                                          String attachmentContent, String attachmentName)
-            throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    @Override
+    public void sendCancellationEmail(Booking booking) {
+        if (!emailEnabled) {
+            log.info("Email disabled. Skipping cancellation to: {}", booking.getEmail());
+            return;
+        }
 
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true); // true = HTML
+        try {
+            Event event = eventRepository.findById(booking.getEventId()).orElse(null);
+            User creator = event != null ? userRepository.findById(event.getUserId()).orElse(null) : null;
+            if (creator == null) {
+                log.error("Event or creator missing for booking: {}", booking.getId());
+                return;
+            }
 
-        // Add ICS attachment
-        helper.addAttachment(attachmentName, () ->
-            new java.io.ByteArrayInputStream(attachmentContent.getBytes(java.nio.charset.StandardCharsets.UTF_8)),
-            "text/calendar");
+            Context context = new Context();
+            context.setVariable("attendeeName", booking.getName());
+            context.setVariable("eventTitle", event.getTitle());
+            context.setVariable("date", booking.getStartTime().format(DATE_FORMATTER));
+            context.setVariable("startTime", booking.getStartTime().format(TIME_FORMATTER));
+            context.setVariable("endTime", booking.getEndTime().format(TIME_FORMATTER));
+            context.setVariable("creatorName", creator.getName());
+            context.setVariable("creatorEmail", creator.getEmail());
+
+            String htmlContent = emailTemplateRenderer.render("booking-cancellation", context);
+
+            // Same UID with a higher SEQUENCE removes the event from the attendee's calendar
+            IcsWriter.Invite invite = bookingInvite(booking, event, creator, IcsWriter.Method.CANCEL);
+            invite.setSequence(invite.getSequence() + 1);
 
-        mailSender.send(message);
+            enqueueEmailWithAttachment(
+                    booking.getEmail(),
+                    "Booking Cancelled: " + event.getTitle(),
+                    htmlContent,
+                    icsWriter.write(invite),
+                    "event.ics"
+            );
+
+            log.info("Queued cancellation email to: {}", booking.getEmail());
+
+        } catch (Exception e) {
+            log.error("Failed to queue cancellation email to: {}. Error: {}",
+                    booking.getEmail(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void sendNotificationDigest(String recipient, String recipientName, List<NotificationDigestEntry> entries) {
+        Context context = new Context();
+        context.setVariable("recipientName", recipientName);
+        context.setVariable("entries", entries);
+        context.setVariable("bookingCount", entries.stream().filter(e -> e.getKind() == DigestKind.BOOKING).count());
+        context.setVariable("connectionRequestCount",
+                entries.stream().filter(e -> e.getKind() == DigestKind.CONNECTION_REQUEST).count());
+
+        String htmlContent = emailTemplateRenderer.render("notification-digest", context);
+
+        enqueueEmail(
+                recipient,
+                entries.size() == 1 ? "1 new notification" : entries.size() + " new notifications",
+                htmlContent
+        );
+
+        log.info("Queued notification digest with {} entries to: {}", entries.size(), recipient);
+    }
+
+    private void bufferForDigest(User recipient, DigestKind kind, String headline, String detail) {
+        NotificationDigestEntry entry = new NotificationDigestEntry();
+        entry.setRecipient(recipient.getEmail());
+        entry.setRecipientName(recipient.getName());
+        entry.setKind(kind);
+        entry.setHeadline(headline);
+        entry.setDetail(detail);
+        notificationDigestRepository.save(entry);
+    }
+
+    private void enqueueEmail(String to, String subject, String htmlContent) {
+        enqueueEmailWithAttachment(to, subject, htmlContent, null, null);
     }
 
     /**
-     * Generate ICS calendar file for booking
-     * @param booking The booking to create calendar event for
-     * @return ICS file content as string
+     * Store a rendered email in the outbox. Commits or rolls back with the caller's transaction.
      */
-    private String generateICSFile(Booking booking) {
-        Event event = booking.getEvent();
-        User creator = event.getUser();
-
-        StringBuilder ics = new StringBuilder();
-        ics.append("BEGIN:VCALENDAR\n");
-        ics.append("VERSION:2.0\n");
-        ics.append("PRODID:-//Scheduler//Booking//EN\n");
-        ics.append("CALSCALE:GREGORIAN\n");
-        ics.append("METHOD:REQUEST\n");
-        ics.append("BEGIN:VEVENT\n");
-        ics.append("UID:").append(booking.getId()).append("@scheduler.com\n");
-        ics.append("DTSTAMP:").append(formatDateForICS(LocalDateTime.now())).append("\n");
-        ics.append("DTSTART:").append(formatDateForICS(booking.getStartTime())).append("\n");
-        ics.append("DTEND:").append(formatDateForICS(booking.getEndTime())).append("\n");
-        ics.append("SUMMARY:").append(event.getTitle()).append("\n");
-        ics.append("DESCRIPTION:").append(escapeICSText(event.getDescription())).append("\\n\\n");
-        ics.append("Meeting Link: ").append(booking.getMeetLink()).append("\n");
-        ics.append("LOCATION:").append(booking.getMeetLink()).append("\n");
-        ics.append("ORGANIZER;CN=").append(creator.getName()).append(":mailto:").append(creator.getEmail()).append("\n");
-        ics.append("ATTENDEE;CN=").append(booking.getName()).append(";RSVP=TRUE:mailto:").append(booking.getEmail()).append("\n");
-        ics.append("STATUS:CONFIRMED\n");
-        ics.append("SEQUENCE:0\n");
-        ics.append("END:VEVENT\n");
-        ics.append("END:VCALENDAR\n");
-
-        return ics.toString();
+    private void enqueueEmailWithAttachment(String to, String subject, String htmlContent,
+                                            String attachmentContent, String attachmentName) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setHtmlBody(htmlContent);
+        if (attachmentContent != null) {
+            // ICS attachment
+            email.setAttachmentName(attachmentName);
+            email.setAttachmentContentType("text/calendar");
+            email.setAttachmentContent(attachmentContent);
+        }
+        emailOutboxRepository.save(email);
+        eventPublisher.publishEvent(new EmailEnqueuedEvent());
+    }
+
+    private IcsWriter.Invite bookingInvite(Booking booking, Event event, User creator, IcsWriter.Method method) {
+        IcsWriter.Invite invite = new IcsWriter.Invite();
+        invite.setUid(booking.getId() + "@scheduler.com");
+        invite.setMethod(method);
+        invite.setSequence(booking.getIcsSequence() != null ? booking.getIcsSequence() : 0);
+        invite.setStartTime(booking.getStartTime());
+        invite.setEndTime(booking.getEndTime());
+        invite.setSummary(event.getTitle());
+        invite.setDescription(describe(event.getDescription(), booking.getMeetLink()));
+        invite.setLocation(booking.getMeetLink());
+        invite.setOrganizer(new IcsWriter.Attendee(creator.getName(), creator.getEmail()));
+        invite.getAttendees().add(new IcsWriter.Attendee(booking.getName(), booking.getEmail()));
+        return invite;
     }
 
-    private String formatDateForICS(LocalDateTime dateTime) {
-        return dateTime.format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'"));
+    private IcsWriter.Invite meetingRequestInvite(MeetingRequest request, User requester, User receiver) {
+        IcsWriter.Invite invite = new IcsWriter.Invite();
+        invite.setUid(request.getId() + "@scheduler.com");
+        invite.setStartTime(request.getStartTime());
+        invite.setEndTime(request.getEndTime());
+        invite.setSummary(request.getTitle());
+        invite.setDescription(describe(request.getDescription(), request.getMeetLink()));
+        invite.setLocation(request.getMeetLink());
+        invite.setOrganizer(new IcsWriter.Attendee(receiver.getName(), receiver.getEmail()));
+        invite.getAttendees().add(new IcsWriter.Attendee(requester.getName(), requester.getEmail()));
+        invite.getAttendees().add(new IcsWriter.Attendee(receiver.getName(), receiver.getEmail()));
+        return invite;
     }
 
-    private String escapeICSText(String text) {
-        if (text == null) return "";
-        return text.replace("\\", "\\\\")
-                .replace(",", "\\,")
-                .replace(";", "\\;")
-                .replace("\n", "\\n");
+    private String describe(String description, String meetLink) {
+        String text = description != null ? description + "\n\n" : "";
+        return text + "Meeting Link: " + meetLink;
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendMeetingRequestNotification(MeetingRequest request, User requester, User receiver) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping meeting request notification to: {}", receiver.getEmail());
@@ -270,24 +380,23 @@ public class EmailServiceImpl implements EmailService {
             context.setVariable("endTime", request.getEndTime().format(TIME_FORMATTER));
             context.setVariable("requestId", request.getId());
 
-            String htmlContent = templateEngine.process("meeting-request-notification", context);
+            String htmlContent = emailTemplateRenderer.render("meeting-request-notification", context);
 
-            sendEmail(
+            enqueueEmail(
                     receiver.getEmail(),
                     "Meeting Request from " + requester.getName(),
                     htmlContent
             );
 
-            log.info("Sent meeting request notification to: {}", receiver.getEmail());
+            log.info("Queued meeting request notification to: {}", receiver.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send meeting request notification to: {}. Error: {}",
+            log.error("Failed to queue meeting request notification to: {}. Error: {}",
                     receiver.getEmail(), e.getMessage(), e);
         }
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendMeetingRequestApproval(MeetingRequest request, User requester, User receiver) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping meeting request approval emails");
@@ -295,6 +404,9 @@ public class EmailServiceImpl implements EmailService {
         }
 
         try {
+            // Both parties get the same calendar object
+            String icsContent = icsWriter.write(meetingRequestInvite(request, requester, receiver));
+
             // Send approval email to requester
             Context requesterContext = new Context();
             requesterContext.setVariable("userName", requester.getName());
@@ -306,20 +418,17 @@ public class EmailServiceImpl implements EmailService {
             requesterContext.setVariable("endTime", request.getEndTime().format(TIME_FORMATTER));
             requesterContext.setVariable("meetLink", request.getMeetLink());
 
-            String requesterHtmlContent = templateEngine.process("meeting-request-approval", requesterContext);
-
-            // Generate ICS for requester
-            String requesterICS = generateMeetingRequestICS(request, requester, receiver, requester.getEmail());
+            String requesterHtmlContent = emailTemplateRenderer.render("meeting-request-approval", requesterContext);
 
-            sendEmailWithAttachment(
+            enqueueEmailWithAttachment(
                     requester.getEmail(),
                     "Meeting Approved: " + request.getTitle(),
                     requesterHtmlContent,
-                    requesterICS,
+                    icsContent,
                     "meeting.ics"
             );
 
-            log.info("Sent meeting approval email to requester: {}", requester.getEmail());
+            log.info("Queued meeting approval email to requester: {}", requester.getEmail());
 
             // Send approval email to receiver
             Context receiverContext = new Context();
@@ -332,28 +441,24 @@ public class EmailServiceImpl implements EmailService {
             receiverContext.setVariable("endTime", request.getEndTime().format(TIME_FORMATTER));
             receiverContext.setVariable("meetLink", request.getMeetLink());
 
-            String receiverHtmlContent = templateEngine.process("meeting-request-approval", receiverContext);
+            String receiverHtmlContent = emailTemplateRenderer.render("meeting-request-approval", receiverContext);
 
-            // Generate ICS for receiver
-            String receiverICS = generateMeetingRequestICS(request, requester, receiver, receiver.getEmail());
-
-            sendEmailWithAttachment(
+            enqueueEmailWithAttachment(
                     receiver.getEmail(),
                     "Meeting Confirmed: " + request.getTitle(),
                     receiverHtmlContent,
-                    receiverICS,
+                    icsContent,
                     "meeting.ics"
             );
 
-            log.info("Sent meeting approval email to receiver: {}", receiver.getEmail());
+            log.info("Queued meeting approval email to receiver: {}", receiver.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send meeting approval emails. Error: {}", e.getMessage(), e);
+            log.error("Failed to queue meeting approval emails. Error: {}", e.getMessage(), e);
         }
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendMeetingRequestRejection(MeetingRequest request, User requester, User receiver) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping meeting request rejection email");
@@ -371,54 +476,23 @@ public class EmailServiceImpl implements EmailService {
             context.setVariable("endTime", request.getEndTime().format(TIME_FORMATTER));
             context.setVariable("rejectionReason", request.getRejectionReason());
 
-            String htmlContent = templateEngine.process("meeting-request-rejection", context);
+            String htmlContent = emailTemplateRenderer.render("meeting-request-rejection", context);
 
-            sendEmail(
+            enqueueEmail(
                     requester.getEmail(),
                     "Meeting Request Declined: " + request.getTitle(),
                     htmlContent
             );
 
-            log.info("Sent meeting rejection email to: {}", requester.getEmail());
+            log.info("Queued meeting rejection email to: {}", requester.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send meeting rejection email to: {}. Error: {}",
+            log.error("Failed to queue meeting rejection email to: {}. Error: {}",
                     requester.getEmail(), e.getMessage(), e);
         }
     }
 
-    /**
-     * Generate ICS calendar file for meeting request
-     */
-    private String generateMeetingRequestICS(MeetingRequest request, User requester, User receiver, String attendeeEmail) {
-        StringBuilder ics = new StringBuilder();
-        ics.append("BEGIN:VCALENDAR\n");
-        ics.append("VERSION:2.0\n");
-        ics.append("PRODID:-//Scheduler//Meeting Request//EN\n");
-        ics.append("CALSCALE:GREGORIAN\n");
-        ics.append("METHOD:REQUEST\n");
-        ics.append("BEGIN:VEVENT\n");
-        ics.append("UID:").append(request.getId()).append("@scheduler.com\n");
-        ics.append("DTSTAMP:").append(formatDateForICS(LocalDateTime.now())).append("\n");
-        ics.append("DTSTART:").append(formatDateForICS(request.getStartTime())).append("\n");
-        ics.append("DTEND:").append(formatDateForICS(request.getEndTime())).append("\n");
-        ics.append("SUMMARY:").append(request.getTitle()).append("\n");
-        ics.append("DESCRIPTION:").append(escapeICSText(request.getDescription())).append("\\n\\n");
-        ics.append("Meeting Link: ").append(request.getMeetLink()).append("\n");
-        ics.append("LOCATION:").append(request.getMeetLink()).append("\n");
-        ics.append("ORGANIZER;CN=").append(receiver.getName()).append(":mailto:").append(receiver.getEmail()).append("\n");
-        ics.append("ATTENDEE;CN=").append(requester.getName()).append(";RSVP=TRUE:mailto:").append(requester.getEmail()).append("\n");
-        ics.append("ATTENDEE;CN=").append(receiver.getName()).append(";RSVP=TRUE:mailto:").append(receiver.getEmail()).append("\n");
-        ics.append("STATUS:CONFIRMED\n");
-        ics.append("SEQUENCE:0\n");
-        ics.append("END:VEVENT\n");
-        ics.append("END:VCALENDAR\n");
-
-        return ics.toString();
-    }
-
     @Override
-    @Async("emailTaskExecutor")
     public void sendConnectionRequestNotification(com.scheduler.model.Connection connection, User sender, User receiver) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping connection request notification to: {}", receiver.getEmail());
@@ -426,6 +500,14 @@ public class EmailServiceImpl implements EmailService {
         }
 
         try {
+            if (digestEnabled) {
+                bufferForDigest(receiver, DigestKind.CONNECTION_REQUEST,
+                        sender.getName() + " wants to connect",
+                        connection.getMessage());
+                log.info("Buffered connection request notification for digest to: {}", receiver.getEmail());
+                return;
+            }
+
             Context context = new Context();
             context.setVariable("receiverName", receiver.getName());
             context.setVariable("senderName", sender.getName());
@@ -433,24 +515,23 @@ public class EmailServiceImpl implements EmailService {
             context.setVariable("message", connection.getMessage() != null ? connection.getMessage() : "");
             context.setVariable("connectionId", connection.getId());
 
-            String htmlContent = templateEngine.process("connection-request-notification", context);
+            String htmlContent = emailTemplateRenderer.render("connection-request-notification", context);
 
-            sendEmail(
+            enqueueEmail(
                     receiver.getEmail(),
                     "Connection Request from " + sender.getName(),
                     htmlContent
             );
 
-            log.info("Sent connection request notification to: {}", receiver.getEmail());
+            log.info("Queued connection request notification to: {}", receiver.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send connection request notification to: {}. Error: {}",
+            log.error("Failed to queue connection request notification to: {}. Error: {}",
                     receiver.getEmail(), e.getMessage(), e);
         }
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendConnectionAcceptedNotification(com.scheduler.model.Connection connection, User sender, User receiver) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping connection accepted notification emails");
@@ -459,20 +540,9 @@ public class EmailServiceImpl implements EmailService {
 
         try {
             // Send email to sender (person who sent original request)
-            Context senderContext = new Context();
-            senderContext.setVariable("userName", sender.getName());
-            senderContext.setVariable("accepterName", receiver.getName());
-            senderContext.setVariable("accepterEmail", receiver.getEmail());
-
-            String senderHtmlContent = templateEngine.process("connection-accepted", senderContext);
-
-            sendEmail(
-                    sender.getEmail(),
-                    receiver.getName() + " accepted your connection request",
-                    senderHtmlContent
-            );
+            enqueueAcceptedNotification(sender, receiver);
 
-            log.info("Sent connection accepted notification to sender: {}", sender.getEmail());
+            log.info("Queued connection accepted notification to sender: {}", sender.getEmail());
 
             // Send email to receiver (person who accepted)
             Context receiverContext = new Context();
@@ -480,23 +550,73 @@ public class EmailServiceImpl implements EmailService {
             receiverContext.setVariable("accepterName", sender.getName());
             receiverContext.setVariable("accepterEmail", sender.getEmail());
 
-            String receiverHtmlContent = templateEngine.process("connection-accepted", receiverContext);
+            String receiverHtmlContent = emailTemplateRenderer.render("connection-accepted", receiverContext);
 
-            sendEmail(
+            enqueueEmail(
                     receiver.getEmail(),
                     "You're now connected with " + sender.getName(),
                     receiverHtmlContent
             );
 
-            log.info("Sent connection accepted notification to receiver: {}", receiver.getEmail());
+            log.info("Queued connection accepted notification to receiver: {}", receiver.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send connection accepted emails. Error: {}", e.getMessage(), e);
+            log.error("Failed to queue connection accepted emails. Error: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void sendConnectionsAcceptedInBulk(User accepter, List<User> requesters) {
+        if (!emailEnabled) {
+            log.info("Email disabled. Skipping bulk connection accepted notification emails");
+            return;
         }
+
+        for (User requester : requesters) {
+            try {
+                enqueueAcceptedNotification(requester, accepter);
+            } catch (Exception e) {
+                log.error("Failed to queue connection accepted notification to: {}. Error: {}",
+                        requester.getEmail(), e.getMessage(), e);
+            }
+        }
+
+        try {
+            Context summaryContext = new Context();
+            summaryContext.setVariable("userName", accepter.getName());
+            summaryContext.setVariable("connectionCount", requesters.size());
+            summaryContext.setVariable("connections", requesters);
+
+            enqueueEmail(
+                    accepter.getEmail(),
+                    "You're now connected with " + requesters.size() + " people",
+                    emailTemplateRenderer.render("connections-accepted-summary", summaryContext)
+            );
+
+            log.info("Queued {} connection accepted notifications and a summary to: {}",
+                    requesters.size(), accepter.getEmail());
+
+        } catch (Exception e) {
+            log.error("Failed to queue connection accepted summary to: {}. Error: {}",
+                    accepter.getEmail(), e.getMessage(), e);
+        }
+    }
+
+    // "<accepter> accepted your connection request", to the user who sent the request
+    private void enqueueAcceptedNotification(User requester, User accepter) {
+        Context context = new Context();
+        context.setVariable("userName", requester.getName());
+        context.setVariable("accepterName", accepter.getName());
+        context.setVariable("accepterEmail", accepter.getEmail());
+
+        enqueueEmail(
+                requester.getEmail(),
+                accepter.getName() + " accepted your connection request",
+                emailTemplateRenderer.render("connection-accepted", context)
+        );
     }
 
     @Override
-    @Async("emailTaskExecutor")
     public void sendConnectionRejectedNotification(com.scheduler.model.Connection connection, User sender, User receiver) {
         if (!emailEnabled) {
             log.info("Email disabled. Skipping connection rejected notification to: {}", sender.getEmail());
@@ -508,18 +628,18 @@ public class EmailServiceImpl implements EmailService {
             context.setVariable("userName", sender.getName());
             context.setVariable("rejecterName", receiver.getName());
 
-            String htmlContent = templateEngine.process("connection-rejected", context);
+            String htmlContent = emailTemplateRenderer.render("connection-rejected", context);
 
-            sendEmail(
+            enqueueEmail(
                     sender.getEmail(),
                     "Connection request declined",
                     htmlContent
             );
 
-            log.info("Sent connection rejection notification to: {}", sender.getEmail());
+            log.info("Queued connection rejection notification to: {}", sender.getEmail());
 
         } catch (Exception e) {
-            log.error("Failed to send connection rejection notification to: {}. Error: {}",
+            log.error("Failed to queue connection rejection notification to: {}. Error: {}",
                     sender.getEmail(), e.getMessage(), e);
         }
     }
@@ -1,17 +1,22 @@
 package com.scheduler.service;
 
 import com.scheduler.dto.EventDTO;
+import com.scheduler.dto.ResourceVersion;
 import com.scheduler.model.Event;
+import com.scheduler.model.MeetLinkPoolEntry;
+import com.scheduler.model.MeetLinkStatus;
 import com.scheduler.model.User;
 import com.scheduler.repository.EventRepository;
 import com.scheduler.repository.UserRepository;
+import com.scheduler.repository.VersionStamp;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,7 +26,9 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
-    private final GoogleCalendarService googleCalendarService;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final MeetLinkPoolService meetLinkPoolService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<EventDTO> getAllEvents() {
@@ -51,6 +58,12 @@ public class EventService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getPublicEventsVersion(String userId) {
+        VersionStamp stamp = eventRepository.findPublicVersionStampByUserId(userId);
+        return ResourceVersion.of(stamp.getLastModified(), userId, stamp.getTotal());
+    }
+
     @Transactional
     public EventDTO createEvent(EventDTO eventDTO) {
         User user = userRepository.findById(eventDTO.getUserId())
@@ -58,12 +71,35 @@ public class EventService {
 
         Event event = convertToEntity(eventDTO);
 
-        // Generate permanent Meet link for this event
-        String meetLink = generatePermanentMeetLink(user, event);
-        event.setMeetLink(meetLink);
+        boolean googleConnected = user.getGoogleAccessToken() != null && !user.getGoogleAccessToken().isEmpty();
+        Optional<MeetLinkPoolEntry> pooled = googleConnected
+                ? meetLinkPoolService.claim(user.getId())
+                : Optional.empty();
+
+        if (pooled.isPresent()) {
+            // Ready link from the host's pool; no Google call needed
+            event.setMeetLink(pooled.get().getMeetLink());
+            event.setGoogleEventId(pooled.get().getGoogleEventId());
+            event.setMeetLinkStatus(MeetLinkStatus.READY);
+        } else {
+            // Pool empty: the permanent Meet link is created after commit by MeetLinkProvisioner;
+            // until then bookings get the generic link and are backfilled later
+            event.setMeetLink(MeetLinkProvisioner.FALLBACK_MEET_LINK);
+            if (googleConnected) {
+                event.setMeetLinkStatus(MeetLinkStatus.PENDING);
+            } else {
+                log.warn("User {} doesn't have Google access token", user.getId());
+                event.setMeetLinkStatus(MeetLinkStatus.FALLBACK);
+            }
+        }
 
         Event savedEvent = eventRepository.save(event);
-        log.info("Created event with permanent Meet link: {}", meetLink);
+        if (pooled.isPresent()) {
+            eventPublisher.publishEvent(new MeetLinkClaimedEvent(
+                    savedEvent.getId(), user.getId(), savedEvent.getGoogleEventId(), savedEvent.getTitle()));
+        } else if (savedEvent.getMeetLinkStatus() == MeetLinkStatus.PENDING) {
+            eventPublisher.publishEvent(new MeetLinkRequestedEvent(MeetLinkRequestedEvent.Target.EVENT, savedEvent.getId()));
+        }
         return convertToDTO(savedEvent);
     }
 
@@ -81,12 +117,9 @@ public class EventService {
         return convertToDTO(updatedEvent);
     }
 
-    @Transactional
+    // Not transactional: CascadeDeleteService commits each chunk separately
     public void deleteEvent(String id) {
-        if (!eventRepository.existsById(id)) {
-            throw new RuntimeException("Event not found with id: " + id);
-        }
-        eventRepository.deleteById(id);
+        cascadeDeleteService.deleteEvent(id);
     }
 
     private EventDTO convertToDTO(Event event) {
@@ -98,6 +131,7 @@ public class EventService {
         dto.setUserId(event.getUserId());
         dto.setIsPrivate(event.getIsPrivate());
         dto.setMeetLink(event.getMeetLink());
+        dto.setMeetLinkStatus(event.getMeetLinkStatus());
         dto.setCreatedAt(event.getCreatedAt());
         dto.setUpdatedAt(event.getUpdatedAt());
         return dto;
@@ -113,47 +147,4 @@ public class EventService {
         event.setIsPrivate(dto.getIsPrivate() != null ? dto.getIsPrivate() : true);
         return event;
     }
-
-    /**
-     * Generate a permanent Google Meet link for an event
-     * This link will be reused for all bookings of this event
-     */
-    private String generatePermanentMeetLink(User user, Event event) {
-        try {
-            if (user.getGoogleAccessToken() != null && !user.getGoogleAccessToken().isEmpty()) {
-                log.info("Creating permanent Google Calendar event for: {}", event.getTitle());
-
-                // Create a calendar event far in the future for the permanent Meet link
-                // We'll use a placeholder date since we just want the Meet link
-                LocalDateTime startTime = LocalDateTime.now().plusYears(1);
-                LocalDateTime endTime = startTime.plusMinutes(event.getDuration() != null ? event.getDuration() : 30);
-
-                com.google.api.services.calendar.model.Event calendarEvent =
-                        googleCalendarService.createCalendarEvent(
-                                user.getGoogleAccessToken(),
-                                event.getTitle() + " (Permanent Meet Link)",
-                                event.getDescription() != null ? event.getDescription() : "",
-                                "",
-                                startTime,
-                                endTime
-                        );
-
-                if (calendarEvent.getConferenceData() != null &&
-                        calendarEvent.getConferenceData().getEntryPoints() != null &&
-                        !calendarEvent.getConferenceData().getEntryPoints().isEmpty()) {
-                    String meetLink = calendarEvent.getConferenceData().getEntryPoints().get(0).getUri();
-                    log.info("Successfully created permanent Meet link: {}", meetLink);
-                    return meetLink;
-                }
-            } else {
-                log.warn("User {} doesn't have Google access token", user.getId());
-            }
-        } catch (Exception e) {
-            log.error("Failed to create permanent Google Calendar event: {}", e.getMessage(), e);
-        }
-
-        // Fallback to new meeting link
-        log.info("Using Google Meet 'new' link as fallback for event: {}", event.getTitle());
-        return "https://meet.google.com/new";
-    }
 }
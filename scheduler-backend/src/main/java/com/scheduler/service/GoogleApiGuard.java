@@ -0,0 +1,323 @@
+package com.scheduler.service;
+
+import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulkhead, timeout and circuit breaker for outbound Google API calls.
+ *
+ * Calls run on the bounded googleCallExecutor. A call still queued after
+ * {@code google.guard.max-queue-wait-ms} is dropped without counting against Google; a running
+ * call is abandoned {@code google.guard.call-timeout-ms} after it started, with
+ * GoogleApiTimeoutException. Outcomes go into a sliding window of the last
+ * {@code google.guard.window-size} calls; once the failure or slow-call rate crosses its
+ * threshold the circuit opens and calls fail fast with GoogleApiUnavailableException for
+ * {@code google.guard.open-duration-ms}. A few trial calls are then let through (half-open)
+ * to decide whether to close again.
+ *
+ * Abandoning a timed-out call cancels its future, but blocking socket reads ignore interrupts:
+ * the bulkhead thread stays busy until the transport gives up. That only holds the bulkhead to
+ * the call timeout because GoogleCalendarService sets {@code google.http.read-timeout-ms}
+ * (below the call timeout) on every request.
+ */
+@Service
+@Slf4j
+public class GoogleApiGuard {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final AsyncTaskExecutor googleCallExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${google.guard.call-timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    @Value("${google.guard.max-queue-wait-ms:10000}")
+    private long maxQueueWaitMs;
+
+    @Value("${google.guard.slow-call-ms:5000}")
+    private long slowCallMs;
+
+    @Value("${google.guard.window-size:20}")
+    private int windowSize;
+
+    @Value("${google.guard.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${google.guard.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${google.guard.slow-call-rate-threshold:80}")
+    private int slowCallRateThreshold;
+
+    @Value("${google.guard.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${google.guard.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private Outcome[] window;
+    private int windowPosition;
+    private int recordedCalls;
+
+    private final Counter rejectedCounter;
+
+    public GoogleApiGuard(@Qualifier("googleCallExecutor") AsyncTaskExecutor googleCallExecutor,
+                          MeterRegistry meterRegistry) {
+        this.googleCallExecutor = googleCallExecutor;
+        this.meterRegistry = meterRegistry;
+        this.rejectedCounter = Counter.builder("google.guard.rejected")
+                .description("Google calls refused by the open circuit, a full bulkhead or a timeout")
+                .register(meterRegistry);
+        Gauge.builder("google.guard.state", this, guard -> guard.getState().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    synchronized void initWindow() {
+        resetWindow();
+    }
+
+    /**
+     * Run one Google call through the bulkhead and circuit breaker.
+     * @param operation short name used as a metric tag
+     * @throws GoogleApiUnavailableException when the call is refused or waited too long for a thread
+     * @throws GoogleApiTimeoutException when the call ran past its timeout
+     * @throws Exception whatever the call itself threw
+     */
+    public <T> T call(String operation, Callable<T> call) throws Exception {
+        if (!tryAcquirePermission()) {
+            rejectedCounter.increment();
+            throw new GoogleApiUnavailableException("Google API circuit is open");
+        }
+
+        TimedCall<T> timedCall = new TimedCall<>(call);
+        Future<T> future;
+        try {
+            future = googleCallExecutor.submit(timedCall);
+        } catch (RejectedExecutionException e) {
+            // Not Google's fault; give back a half-open permit without recording an outcome
+            releasePermission();
+            rejectedCounter.increment();
+            throw new GoogleApiUnavailableException("Google API bulkhead is full", e);
+        }
+
+        long start;
+        try {
+            if (!timedCall.started.await(maxQueueWaitMs, TimeUnit.MILLISECONDS) && timedCall.abandon()) {
+                // Queue time is ours, not Google's: no outcome recorded
+                future.cancel(false);
+                releasePermission();
+                rejectedCounter.increment();
+                throw new GoogleApiUnavailableException("Google API bulkhead queue wait exceeded: " + operation);
+            }
+            timedCall.started.await();
+            start = timedCall.startNanos;
+        } catch (InterruptedException e) {
+            timedCall.abandon();
+            future.cancel(true);
+            releasePermission();
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(callTimeoutMs) - (System.nanoTime() - start);
+            T result = future.get(remainingNanos, TimeUnit.NANOSECONDS);
+            record(operation, start, false);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            record(operation, start, true);
+            rejectedCounter.increment();
+            throw new GoogleApiTimeoutException("Google API call timed out: " + operation, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            releasePermission();
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            record(operation, start, countsAsFailure(cause));
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void record(String operation, long startNanos, boolean failed) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        boolean slow = elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+
+        Timer.builder("google.guard.calls")
+                .tag("operation", operation)
+                .tag("outcome", failed ? "failure" : slow ? "slow" : "success")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        recordOutcome(failed ? Outcome.FAILURE : slow ? Outcome.SLOW : Outcome.SUCCESS);
+    }
+
+    private synchronized void recordOutcome(Outcome outcome) {
+        if (state == State.HALF_OPEN) {
+            if (outcome == Outcome.FAILURE) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call admitted before the circuit opened
+            return;
+        }
+
+        window[windowPosition] = outcome;
+        windowPosition = (windowPosition + 1) % window.length;
+        recordedCalls = Math.min(recordedCalls + 1, window.length);
+        if (recordedCalls < minimumCalls) {
+            return;
+        }
+
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < recordedCalls; i++) {
+            if (window[i] == Outcome.FAILURE) {
+                failures++;
+            } else if (window[i] == Outcome.SLOW) {
+                slowCalls++;
+            }
+        }
+        if (failures * 100 >= failureRateThreshold * recordedCalls
+                || slowCalls * 100 >= slowCallRateThreshold * recordedCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        log.warn("Google API circuit {} -> {}", state, next);
+        meterRegistry.counter("google.guard.transitions", "from", state.name(), "to", next.name()).increment();
+
+        state = next;
+        switch (next) {
+            case OPEN -> openedAt = System.currentTimeMillis();
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> resetWindow();
+        }
+    }
+
+    private void resetWindow() {
+        window = new Outcome[Math.max(1, windowSize)];
+        windowPosition = 0;
+        recordedCalls = 0;
+    }
+
+    // Client errors (bad request, not found, revoked token) say nothing about Google's health
+    private boolean countsAsFailure(Throwable error) {
+        if (error instanceof HttpResponseException response) {
+            int status = response.getStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return true;
+    }
+
+    /**
+     * Notes when a thread picks the call up, so the timeout covers run time only. Whichever of
+     * the worker and the waiting caller claims it first decides whether it runs at all.
+     */
+    private static final class TimedCall<T> implements Callable<T> {
+
+        private final Callable<T> delegate;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile long startNanos;
+
+        TimedCall(Callable<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T call() throws Exception {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            startNanos = System.nanoTime();
+            started.countDown();
+            return delegate.call();
+        }
+
+        boolean abandon() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        SLOW,
+        FAILURE
+    }
+}
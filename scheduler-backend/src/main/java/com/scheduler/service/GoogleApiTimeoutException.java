@@ -0,0 +1,13 @@
+package com.scheduler.service;
+
+/**
+ * Thrown when a Google call ran past {@code google.guard.call-timeout-ms}. Unlike
+ * GoogleApiUnavailableException the call did reach Google, so callers retry it like any
+ * other failed attempt.
+ */
+public class GoogleApiTimeoutException extends RuntimeException {
+
+    public GoogleApiTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
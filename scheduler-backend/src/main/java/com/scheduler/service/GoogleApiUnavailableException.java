@@ -0,0 +1,17 @@
+package com.scheduler.service;
+
+/**
+ * Thrown instead of calling Google when the circuit is open, the bulkhead is full or a call
+ * waited too long for a thread. Nothing reached Google, so callers defer the work rather
+ * than record a permanent failure.
+ */
+public class GoogleApiUnavailableException extends RuntimeException {
+
+    public GoogleApiUnavailableException(String message) {
+        super(message);
+    }
+
+    public GoogleApiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,188 @@
+package com.scheduler.service;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.CalendarRequest;
+import com.google.api.services.calendar.model.Event;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Coalesces Calendar insert/patch/delete calls into multipart batch requests.
+ *
+ * Operations are grouped per access token (a batch is sent with one set of credentials).
+ * A group is flushed when it reaches {@code google.calendar.batch.max-size} operations or
+ * {@code google.calendar.batch.window-ms} after its first operation, whichever comes first.
+ * Each caller gets a future completed from its own part of the batch response.
+ *
+ * Window timers run on the batcher's own scheduler thread: callers such as MeetLinkProvisioner
+ * block on these futures from @Scheduled jobs, so the flush must not wait behind them on the
+ * shared scheduler.
+ */
+@Service
+@Slf4j
+public class GoogleCalendarBatcher {
+
+    private static final String CALENDAR_ID = "primary";
+
+    private final GoogleCalendarService googleCalendarService;
+    private final ThreadPoolTaskScheduler flushScheduler;
+    private final Executor googleBatchExecutor;
+
+    private final Map<String, List<PendingOp<?>>> pendingByToken = new ConcurrentHashMap<>();
+
+    @Value("${google.calendar.batch.window-ms:50}")
+    private long windowMs;
+
+    // Calendar API accepts at most 50 calls per batch
+    @Value("${google.calendar.batch.max-size:50}")
+    private int maxBatchSize;
+
+    public GoogleCalendarBatcher(GoogleCalendarService googleCalendarService,
+                                 @Qualifier("googleBatchExecutor") Executor googleBatchExecutor) {
+        this.googleCalendarService = googleCalendarService;
+        this.googleBatchExecutor = googleBatchExecutor;
+        // Flushing only hands the group to googleBatchExecutor, so one thread keeps up
+        this.flushScheduler = new ThreadPoolTaskScheduler();
+        flushScheduler.setPoolSize(1);
+        flushScheduler.setThreadNamePrefix("google-batch-flush-");
+        flushScheduler.setDaemon(true);
+        flushScheduler.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushScheduler.shutdown();
+        pendingByToken.keySet().forEach(this::flush);
+    }
+
+    public CompletableFuture<Event> insertEvent(String accessToken, Event event) {
+        return enqueue(accessToken, events -> events.insert(CALENDAR_ID, event)
+                .setConferenceDataVersion(1)
+                .setSendUpdates("all"));
+    }
+
+    public CompletableFuture<Event> patchEvent(String accessToken, String eventId, Event patch) {
+        return enqueue(accessToken, events -> events.patch(CALENDAR_ID, eventId, patch));
+    }
+
+    public CompletableFuture<Void> deleteEvent(String accessToken, String eventId) {
+        return enqueue(accessToken, events -> events.delete(CALENDAR_ID, eventId));
+    }
+
+    private <T> CompletableFuture<T> enqueue(String accessToken, RequestFactory<T> factory) {
+        PendingOp<T> op = new PendingOp<>(factory, new CompletableFuture<>());
+        AtomicBoolean firstInWindow = new AtomicBoolean();
+        AtomicReference<List<PendingOp<?>>> full = new AtomicReference<>();
+
+        pendingByToken.compute(accessToken, (token, ops) -> {
+            if (ops == null) {
+                ops = new ArrayList<>();
+                firstInWindow.set(true);
+            }
+            ops.add(op);
+            if (ops.size() >= maxBatchSize) {
+                full.set(ops);
+                return null;
+            }
+            return ops;
+        });
+
+        if (full.get() != null) {
+            dispatch(accessToken, full.get());
+        } else if (firstInWindow.get()) {
+            flushScheduler.schedule(() -> flush(accessToken), Instant.now().plus(Duration.ofMillis(windowMs)));
+        }
+        return op.future;
+    }
+
+    private void flush(String accessToken) {
+        List<PendingOp<?>> ops = pendingByToken.remove(accessToken);
+        if (ops != null) {
+            dispatch(accessToken, ops);
+        }
+    }
+
+    private void dispatch(String accessToken, List<PendingOp<?>> ops) {
+        try {
+            googleBatchExecutor.execute(() -> execute(accessToken, ops));
+        } catch (RejectedExecutionException e) {
+            execute(accessToken, ops);
+        }
+    }
+
+    private void execute(String accessToken, List<PendingOp<?>> ops) {
+        Calendar client = googleCalendarService.calendarClient(accessToken);
+        // The outer request carries the token too; client.batch() alone would send it unauthenticated
+        BatchRequest batch = client.batch(client.getRequestFactory().getInitializer());
+
+        for (PendingOp<?> op : ops) {
+            try {
+                op.queue(client, batch);
+            } catch (IOException e) {
+                op.future.completeExceptionally(e);
+            }
+        }
+        if (batch.size() == 0) {
+            return;
+        }
+
+        try {
+            googleCalendarService.guarded("events.batch", () -> {
+                batch.execute();
+                return null;
+            });
+            log.debug("Sent Calendar batch of {} operations", ops.size());
+        } catch (Exception e) {
+            log.error("Calendar batch of {} operations failed: {}", ops.size(), e.getMessage());
+            // Parts already answered keep their result; completeExceptionally is a no-op for them
+            ops.forEach(op -> op.future.completeExceptionally(e));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory<T> {
+        CalendarRequest<T> create(Calendar.Events events) throws IOException;
+    }
+
+    private record PendingOp<T>(RequestFactory<T> factory, CompletableFuture<T> future) {
+
+        void queue(Calendar client, BatchRequest batch) throws IOException {
+            factory.create(client.events()).queue(batch, new JsonBatchCallback<T>() {
+                @Override
+                public void onSuccess(T result, HttpHeaders responseHeaders) {
+                    future.complete(result);
+                }
+
+                @Override
+                public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                    HttpResponseException.Builder builder = new HttpResponseException.Builder(
+                            error.getCode(), error.getMessage(), responseHeaders);
+                    future.completeExceptionally(new GoogleJsonResponseException(builder, error));
+                }
+            });
+        }
+    }
+}
@@ -2,17 +2,26 @@ package com.scheduler.service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.googleapis.auth.oauth2.GoogleRefreshTokenRequest;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.CalendarScopes;
+import com.google.api.services.calendar.model.Channel;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventAttendee;
 import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.FreeBusyCalendar;
+import com.google.api.services.calendar.model.FreeBusyRequest;
+import com.google.api.services.calendar.model.FreeBusyRequestItem;
+import com.google.api.services.calendar.model.FreeBusyResponse;
+import com.google.api.services.calendar.model.TimePeriod;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -22,17 +31,24 @@ import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class GoogleCalendarService {
 
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
     private static final String APPLICATION_NAME = "Scheduler App";
 
+    // Shared, pooled transport from GoogleApiConfig; never create one per call
+    private final HttpTransport googleHttpTransport;
+    private final GoogleApiGuard googleApiGuard;
+
     @Value("${google.client.id}")
     private String clientId;
 
@@ -42,9 +58,23 @@ public class GoogleCalendarService {
     @Value("${google.redirect.uri}")
     private String redirectUri;
 
-    public String getAuthorizationUrl() throws GeneralSecurityException, IOException {
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+    // Set on every request; the transport's client-level defaults are overridden per request.
+    // Keep the read timeout under google.guard.call-timeout-ms so a timed-out call frees its thread.
+    @Value("${google.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${google.http.read-timeout-ms:8000}")
+    private int readTimeoutMs;
+
+    // Overrides https://www.googleapis.com/ (e.g. a local stub server); empty means the default
+    @Value("${google.api.root-url:}")
+    private String apiRootUrl;
 
+    // Built once; the flow is immutable and safe to share between requests
+    private GoogleAuthorizationCodeFlow authorizationCodeFlow;
+
+    @PostConstruct
+    public void initAuthorizationFlow() {
         GoogleClientSecrets.Details details = new GoogleClientSecrets.Details();
         details.setClientId(clientId);
         details.setClientSecret(clientSecret);
@@ -52,14 +82,16 @@ public class GoogleCalendarService {
         GoogleClientSecrets clientSecrets = new GoogleClientSecrets();
         clientSecrets.setInstalled(details);
 
-        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                httpTransport,
+        authorizationCodeFlow = new GoogleAuthorizationCodeFlow.Builder(
+                googleHttpTransport,
                 JSON_FACTORY,
                 clientSecrets,
                 Collections.singletonList(CalendarScopes.CALENDAR)
         ).setAccessType("offline").build();
+    }
 
-        return flow.newAuthorizationUrl().setRedirectUri(redirectUri).build();
+    public String getAuthorizationUrl() throws GeneralSecurityException, IOException {
+        return authorizationCodeFlow.newAuthorizationUrl().setRedirectUri(redirectUri).build();
     }
 
     public String exchangeCodeForToken(String code) throws GeneralSecurityException, IOException {
@@ -68,47 +100,60 @@ public class GoogleCalendarService {
     }
 
     public Map<String, String> exchangeCodeForTokens(String code) throws GeneralSecurityException, IOException {
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-
-        GoogleClientSecrets.Details details = new GoogleClientSecrets.Details();
-        details.setClientId(clientId);
-        details.setClientSecret(clientSecret);
-
-        GoogleClientSecrets clientSecrets = new GoogleClientSecrets();
-        clientSecrets.setInstalled(details);
-
-        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                httpTransport,
-                JSON_FACTORY,
-                clientSecrets,
-                Collections.singletonList(CalendarScopes.CALENDAR)
-        ).setAccessType("offline")
-         .setApprovalPrompt("force")
-         .build();
-
-        GoogleTokenResponse tokenResponse = flow.newTokenRequest(code)
+        GoogleTokenResponse tokenResponse = guarded("token.exchange", () -> authorizationCodeFlow.newTokenRequest(code)
                 .setRedirectUri(redirectUri)
-                .execute();
+                .setRequestInitializer(this::applyTimeouts)
+                .execute());
 
         Map<String, String> tokens = new java.util.HashMap<>();
         tokens.put("accessToken", tokenResponse.getAccessToken());
         if (tokenResponse.getRefreshToken() != null) {
             tokens.put("refreshToken", tokenResponse.getRefreshToken());
         }
+        if (tokenResponse.getExpiresInSeconds() != null) {
+            tokens.put("expiresAt", LocalDateTime.now().plusSeconds(tokenResponse.getExpiresInSeconds()).toString());
+        }
 
         return tokens;
     }
 
+    /**
+     * Trade a stored refresh token for a new access token. Callers should go through
+     * GoogleTokenManager, which de-duplicates concurrent refreshes and persists the result.
+     */
+    public GoogleTokenResponse refreshAccessToken(String refreshToken) throws IOException {
+        return guarded("token.refresh", () -> new GoogleRefreshTokenRequest(
+                googleHttpTransport,
+                JSON_FACTORY,
+                refreshToken,
+                clientId,
+                clientSecret
+        ).setRequestInitializer(this::applyTimeouts).execute());
+    }
+
     public Event createCalendarEvent(String accessToken, String summary, String description,
                                      String attendeeEmail, LocalDateTime startTime,
                                      LocalDateTime endTime) throws GeneralSecurityException, IOException {
 
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        Calendar service = calendarClient(accessToken);
 
-        Calendar service = new Calendar.Builder(httpTransport, JSON_FACTORY, request -> {
-            request.getHeaders().setAuthorization("Bearer " + accessToken);
-        }).setApplicationName(APPLICATION_NAME).build();
+        Event event = buildEvent(summary, description, attendeeEmail, startTime, endTime);
 
+        String calendarId = "primary";
+        Calendar.Events.Insert insert = service.events().insert(calendarId, event)
+                .setConferenceDataVersion(1)
+                .setSendUpdates("all");
+        event = guarded("events.insert", insert::execute);
+
+        log.info("Event created: {}", event.getHtmlLink());
+        return event;
+    }
+
+    /**
+     * Builds an event with a Meet conference request, ready for events().insert.
+     */
+    public Event buildEvent(String summary, String description, String attendeeEmail,
+                            LocalDateTime startTime, LocalDateTime endTime) {
         Event event = new Event()
                 .setSummary(summary)
                 .setDescription(description);
@@ -132,26 +177,99 @@ public class GoogleCalendarService {
         event.setAttendees(Arrays.asList(attendees));
 
         event.setConferenceData(createConferenceData());
-
-        String calendarId = "primary";
-        event = service.events().insert(calendarId, event)
-                .setConferenceDataVersion(1)
-                .setSendUpdates("all")
-                .execute();
-
-        log.info("Event created: {}", event.getHtmlLink());
         return event;
     }
 
     public void deleteCalendarEvent(String accessToken, String eventId) throws GeneralSecurityException, IOException {
-        NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        Calendar service = calendarClient(accessToken);
+
+        Calendar.Events.Delete delete = service.events().delete("primary", eventId);
+        guarded("events.delete", delete::execute);
+        log.info("Event deleted: {}", eventId);
+    }
 
-        Calendar service = new Calendar.Builder(httpTransport, JSON_FACTORY, request -> {
+    /**
+     * Busy periods on the user's primary calendar in [timeMin, timeMax). Google already
+     * leaves out transparent ("free") and declined events and expands recurring ones.
+     */
+    public List<TimePeriod> queryBusy(String accessToken, LocalDateTime timeMin, LocalDateTime timeMax) throws IOException {
+        Calendar service = calendarClient(accessToken);
+
+        FreeBusyRequest request = new FreeBusyRequest()
+                .setTimeMin(new DateTime(Date.from(timeMin.atZone(ZoneId.systemDefault()).toInstant())))
+                .setTimeMax(new DateTime(Date.from(timeMax.atZone(ZoneId.systemDefault()).toInstant())))
+                .setItems(List.of(new FreeBusyRequestItem().setId("primary")));
+
+        Calendar.Freebusy.Query query = service.freebusy().query(request);
+        FreeBusyResponse response = guarded("freebusy.query", query::execute);
+        FreeBusyCalendar calendar = response.getCalendars() != null ? response.getCalendars().get("primary") : null;
+        if (calendar == null) {
+            return List.of();
+        }
+        if (calendar.getErrors() != null && !calendar.getErrors().isEmpty()) {
+            throw new IOException("Free/busy query failed: " + calendar.getErrors().get(0).getReason());
+        }
+        return calendar.getBusy() != null ? calendar.getBusy() : List.of();
+    }
+
+    /**
+     * Subscribe to change notifications for the user's primary calendar.
+     * @return the channel as registered, including resourceId and expiration (epoch millis)
+     */
+    public Channel watchPrimaryCalendar(String accessToken, String channelId, String channelToken,
+                                        String address, long ttlSeconds) throws IOException {
+        Calendar service = calendarClient(accessToken);
+
+        Channel channel = new Channel()
+                .setId(channelId)
+                .setToken(channelToken)
+                .setType("web_hook")
+                .setAddress(address)
+                .setParams(Map.of("ttl", String.valueOf(ttlSeconds)));
+
+        Calendar.Events.Watch watch = service.events().watch("primary", channel);
+        return guarded("events.watch", watch::execute);
+    }
+
+    public void stopChannel(String accessToken, String channelId, String resourceId) throws IOException {
+        Calendar service = calendarClient(accessToken);
+
+        Calendar.Channels.Stop stop = service.channels().stop(new Channel().setId(channelId).setResourceId(resourceId));
+        guarded("channels.stop", stop::execute);
+    }
+
+    /**
+     * Run a Google HTTP call through GoogleApiGuard (bulkhead, timeout, circuit breaker).
+     */
+    <T> T guarded(String operation, Callable<T> call) throws IOException {
+        try {
+            return googleApiGuard.call(operation, call);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Per-token Calendar client. Only wraps the shared transport with an auth header,
+     * so creating one per call is cheap.
+     */
+    public Calendar calendarClient(String accessToken) {
+        Calendar.Builder builder = new Calendar.Builder(googleHttpTransport, JSON_FACTORY, request -> {
+            applyTimeouts(request);
             request.getHeaders().setAuthorization("Bearer " + accessToken);
-        }).setApplicationName(APPLICATION_NAME).build();
+        }).setApplicationName(APPLICATION_NAME);
 
-        service.events().delete("primary", eventId).execute();
-        log.info("Event deleted: {}", eventId);
+        if (!apiRootUrl.isEmpty()) {
+            builder.setRootUrl(apiRootUrl);
+        }
+        return builder.build();
+    }
+
+    private void applyTimeouts(HttpRequest request) {
+        request.setConnectTimeout(connectTimeoutMs);
+        request.setReadTimeout(readTimeoutMs);
     }
 
     private com.google.api.services.calendar.model.ConferenceData createConferenceData() {
@@ -0,0 +1,153 @@
+package com.scheduler.service;
+
+import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
+import com.scheduler.repository.GoogleCredentials;
+import com.scheduler.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out usable Google access tokens, refreshing them shortly before they expire.
+ *
+ * Concurrent callers for the same user share a single in-flight refresh. The new token and
+ * its expiry are written with a column-only UPDATE. If a refresh fails the stored token is
+ * returned as-is and callers fall back as they did before.
+ *
+ * Failures are remembered per user: further refreshes wait out an exponential backoff
+ * ({@code google.token.refresh-backoff-ms}, doubling up to {@code refresh-backoff-max-ms}),
+ * and a refresh token Google rejects with invalid_grant is not tried again until the user
+ * reconnects and a different one is stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GoogleTokenManager {
+
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+
+    private final Map<String, CompletableFuture<String>> refreshesInFlight = new ConcurrentHashMap<>();
+    private final Map<String, RefreshFailure> refreshFailures = new ConcurrentHashMap<>();
+
+    @Value("${google.token.refresh-skew-seconds:300}")
+    private long refreshSkewSeconds;
+
+    @Value("${google.token.refresh-backoff-ms:30000}")
+    private long refreshBackoffMs;
+
+    @Value("${google.token.refresh-backoff-max-ms:1800000}")
+    private long refreshBackoffMaxMs;
+
+    /**
+     * @return an access token for the user, or null if the user never connected Google Calendar
+     */
+    public String getAccessToken(String userId) {
+        GoogleCredentials credentials = userRepository.findGoogleCredentialsById(userId).orElse(null);
+        if (credentials == null || isBlank(credentials.getAccessToken()) && isBlank(credentials.getRefreshToken())) {
+            return null;
+        }
+        if (!needsRefresh(credentials) || isBackingOff(userId, credentials.getRefreshToken())) {
+            return isBlank(credentials.getAccessToken()) ? null : credentials.getAccessToken();
+        }
+
+        CompletableFuture<String> refresh = new CompletableFuture<>();
+        CompletableFuture<String> existing = refreshesInFlight.putIfAbsent(userId, refresh);
+        if (existing != null) {
+            return await(existing, credentials);
+        }
+
+        try {
+            refresh.complete(refresh(userId, credentials.getRefreshToken()));
+            refreshFailures.remove(userId);
+        } catch (Exception e) {
+            recordFailure(userId, credentials.getRefreshToken(), e);
+            refresh.completeExceptionally(e);
+        } finally {
+            refreshesInFlight.remove(userId, refresh);
+        }
+        return await(refresh, credentials);
+    }
+
+    private boolean needsRefresh(GoogleCredentials credentials) {
+        if (isBlank(credentials.getRefreshToken())) {
+            return false;
+        }
+        if (isBlank(credentials.getAccessToken())) {
+            return true;
+        }
+        // Unknown expiry (tokens saved before it was tracked): refresh once to learn it
+        return credentials.getExpiresAt() == null
+                || LocalDateTime.now().plusSeconds(refreshSkewSeconds).isAfter(credentials.getExpiresAt());
+    }
+
+    private boolean isBackingOff(String userId, String refreshToken) {
+        RefreshFailure failure = refreshFailures.get(userId);
+        if (failure == null) {
+            return false;
+        }
+        // A new refresh token (the user reconnected) starts over
+        if (!failure.refreshToken().equals(refreshToken)) {
+            refreshFailures.remove(userId, failure);
+            return false;
+        }
+        return failure.revoked() || System.nanoTime() - failure.nextAttemptNanos() < 0;
+    }
+
+    private void recordFailure(String userId, String refreshToken, Exception e) {
+        if (isInvalidGrant(e)) {
+            log.warn("Google refresh token for user {} was rejected (invalid_grant); not retrying until reconnected",
+                    userId);
+            refreshFailures.put(userId, new RefreshFailure(refreshToken, 0, 0, true));
+            return;
+        }
+        RefreshFailure previous = refreshFailures.get(userId);
+        int failures = previous != null && previous.refreshToken().equals(refreshToken) ? previous.failures() + 1 : 1;
+        long backoffMs = Math.min(refreshBackoffMaxMs, refreshBackoffMs << Math.min(failures - 1, 20));
+        log.warn("Google token refresh failed for user {} ({} in a row, next try in {} ms): {}",
+                userId, failures, backoffMs, e.getMessage());
+        refreshFailures.put(userId, new RefreshFailure(refreshToken, failures,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs), false));
+    }
+
+    private static boolean isInvalidGrant(Exception e) {
+        return e instanceof TokenResponseException tokenError
+                && tokenError.getDetails() != null
+                && "invalid_grant".equals(tokenError.getDetails().getError());
+    }
+
+    private String refresh(String userId, String refreshToken) throws Exception {
+        GoogleTokenResponse response = googleCalendarService.refreshAccessToken(refreshToken);
+        LocalDateTime expiresAt = response.getExpiresInSeconds() != null
+                ? LocalDateTime.now().plusSeconds(response.getExpiresInSeconds())
+                : null;
+
+        userRepository.updateGoogleAccessToken(userId, response.getAccessToken(), expiresAt);
+        log.info("Refreshed Google access token for user {} (expires {})", userId, expiresAt);
+        return response.getAccessToken();
+    }
+
+    private String await(CompletableFuture<String> refresh, GoogleCredentials credentials) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            return isBlank(credentials.getAccessToken()) ? null : credentials.getAccessToken();
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private record RefreshFailure(String refreshToken, int failures, long nextAttemptNanos, boolean revoked) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.scheduler.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the iCalendar (RFC 5545) attachments sent with booking and meeting emails.
+ *
+ * Output uses CRLF line endings, escapes TEXT values and folds lines at 75 octets without
+ * splitting a UTF-8 sequence. Times are written in UTC. An invite is written once and the
+ * same text is attached to every recipient's email.
+ */
+@Service
+public class IcsWriter {
+
+    public enum Method {
+        REQUEST,
+        CANCEL
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Attendee {
+        private String name;
+        private String email;
+    }
+
+    @Data
+    public static class Invite {
+        private String uid;
+        private Method method = Method.REQUEST;
+        // Bumped on every change to an invite that was already sent (reschedule, cancel)
+        private int sequence;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private String summary;
+        private String description;
+        private String location;
+        private Attendee organizer;
+        private List<Attendee> attendees = new ArrayList<>();
+    }
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    public String write(Invite invite) {
+        StringBuilder out = new StringBuilder(1024);
+        write(invite, out);
+        return out.toString();
+    }
+
+    public void write(Invite invite, StringBuilder out) {
+        StringBuilder line = new StringBuilder(128);
+
+        fold(out, "BEGIN:VCALENDAR");
+        fold(out, "VERSION:2.0");
+        fold(out, "PRODID:-//Scheduler//Scheduler//EN");
+        fold(out, "CALSCALE:GREGORIAN");
+        fold(out, "METHOD:" + invite.getMethod().name());
+        fold(out, "BEGIN:VEVENT");
+        fold(out, "UID:" + invite.getUid());
+        fold(out, "DTSTAMP:" + formatUtc(LocalDateTime.now()));
+        fold(out, "DTSTART:" + formatUtc(invite.getStartTime()));
+        fold(out, "DTEND:" + formatUtc(invite.getEndTime()));
+
+        textProperty(out, line, "SUMMARY", invite.getSummary());
+        textProperty(out, line, "DESCRIPTION", invite.getDescription());
+        textProperty(out, line, "LOCATION", invite.getLocation());
+
+        if (invite.getOrganizer() != null) {
+            line.setLength(0);
+            line.append("ORGANIZER;CN=");
+            appendParamValue(line, invite.getOrganizer().getName());
+            line.append(":mailto:").append(invite.getOrganizer().getEmail());
+            fold(out, line);
+        }
+        for (Attendee attendee : invite.getAttendees()) {
+            line.setLength(0);
+            line.append("ATTENDEE;CN=");
+            appendParamValue(line, attendee.getName());
+            line.append(";ROLE=REQ-PARTICIPANT;RSVP=TRUE:mailto:").append(attendee.getEmail());
+            fold(out, line);
+        }
+
+        fold(out, invite.getMethod() == Method.CANCEL ? "STATUS:CANCELLED" : "STATUS:CONFIRMED");
+        fold(out, "SEQUENCE:" + invite.getSequence());
+        fold(out, "END:VEVENT");
+        fold(out, "END:VCALENDAR");
+    }
+
+    private void textProperty(StringBuilder out, StringBuilder line, String name, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        line.setLength(0);
+        line.append(name).append(':');
+        appendText(line, value);
+        fold(out, line);
+    }
+
+    /**
+     * Append one content line, breaking it into CRLF + space continuations of at most 75 octets.
+     */
+    private void fold(StringBuilder out, CharSequence content) {
+        int octets = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int codePoint = Character.codePointAt(content, i);
+            int length = utf8Length(codePoint);
+            if (octets + length > MAX_LINE_OCTETS) {
+                out.append(CRLF).append(' ');
+                octets = 1;
+            }
+            out.appendCodePoint(codePoint);
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        out.append(CRLF);
+    }
+
+    // RFC 5545 3.3.11: backslash, semicolon, comma and newlines are escaped
+    private void appendText(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case ';' -> line.append("\\;");
+                case ',' -> line.append("\\,");
+                case '\n' -> line.append("\\n");
+                case '\r' -> {
+                    // \r\n becomes a single \n
+                }
+                default -> line.append(c);
+            }
+        }
+    }
+
+    // Parameter values cannot be escaped, only quoted, and may not contain quotes themselves
+    private void appendParamValue(StringBuilder line, String value) {
+        String cleaned = value == null ? "" : value.replace("\"", "").replaceAll("\\p{Cntrl}", " ");
+        boolean quote = cleaned.indexOf(':') >= 0 || cleaned.indexOf(';') >= 0 || cleaned.indexOf(',') >= 0;
+        if (quote) {
+            line.append('"').append(cleaned).append('"');
+        } else {
+            line.append(cleaned);
+        }
+    }
+
+    private String formatUtc(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMATTER);
+    }
+
+    private int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
@@ -0,0 +1,18 @@
+package com.scheduler.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a new Event took its Meet link from the host's pool, so the placeholder
+ * calendar entry can be renamed and the pool topped up after commit.
+ */
+@Data
+@AllArgsConstructor
+public class MeetLinkClaimedEvent {
+
+    private String eventId;
+    private String userId;
+    private String googleEventId;
+    private String title;
+}
@@ -0,0 +1,165 @@
+package com.scheduler.service;
+
+import com.scheduler.model.MeetLinkPoolEntry;
+import com.scheduler.repository.MeetLinkPoolRepository;
+import com.scheduler.repository.MeetLinkPoolSize;
+import com.scheduler.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a few ready Meet links per Google-connected host so creating an Event only has to
+ * take one from the table instead of waiting on Google.
+ *
+ * Each link is backed by a transparent placeholder calendar event. A claimed entry is deleted
+ * in the creating transaction; after commit its calendar event is renamed to the Event's title
+ * and the host's pool is topped up in the background.
+ */
+@Service
+@Slf4j
+public class MeetLinkPoolService {
+
+    private final MeetLinkPoolRepository meetLinkPoolRepository;
+    private final UserRepository userRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarBatcher googleCalendarBatcher;
+    private final GoogleTokenManager googleTokenManager;
+    private final Executor googleTaskExecutor;
+
+    private final Set<String> replenishing = ConcurrentHashMap.newKeySet();
+
+    @Value("${google.meet-link.pool.size:3}")
+    private int poolSize;
+
+    public MeetLinkPoolService(MeetLinkPoolRepository meetLinkPoolRepository,
+                               UserRepository userRepository,
+                               GoogleCalendarService googleCalendarService,
+                               GoogleCalendarBatcher googleCalendarBatcher,
+                               GoogleTokenManager googleTokenManager,
+                               @Qualifier("googleTaskExecutor") Executor googleTaskExecutor) {
+        this.meetLinkPoolRepository = meetLinkPoolRepository;
+        this.userRepository = userRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.googleCalendarBatcher = googleCalendarBatcher;
+        this.googleTokenManager = googleTokenManager;
+        this.googleTaskExecutor = googleTaskExecutor;
+    }
+
+    /**
+     * Take the host's oldest pooled link, skipping rows another transaction has locked.
+     * Must run inside the caller's transaction so the removal commits with the new Event.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<MeetLinkPoolEntry> claim(String userId) {
+        Optional<MeetLinkPoolEntry> entry = meetLinkPoolRepository.findFirstByUserIdOrderByCreatedAtAsc(userId);
+        entry.ifPresent(meetLinkPoolRepository::delete);
+        return entry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMeetLinkClaimed(MeetLinkClaimedEvent claimed) {
+        String accessToken = googleTokenManager.getAccessToken(claimed.getUserId());
+        if (accessToken != null) {
+            com.google.api.services.calendar.model.Event patch = new com.google.api.services.calendar.model.Event()
+                    .setSummary(claimed.getTitle() + " (Permanent Meet Link)");
+            googleCalendarBatcher.patchEvent(accessToken, claimed.getGoogleEventId(), patch)
+                    .exceptionally(e -> {
+                        log.warn("Failed to rename pooled calendar event {}: {}", claimed.getGoogleEventId(), e.getMessage());
+                        return null;
+                    });
+        }
+        requestReplenish(claimed.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${google.meet-link.pool.replenish-interval-ms:600000}", initialDelay = 45000)
+    public void replenishAll() {
+        Map<String, Long> sizes = meetLinkPoolRepository.countByUser().stream()
+                .collect(Collectors.toMap(MeetLinkPoolSize::getUserId, MeetLinkPoolSize::getTotal));
+
+        for (String userId : userRepository.findIdsWithGoogleCredentials()) {
+            if (sizes.getOrDefault(userId, 0L) < poolSize) {
+                requestReplenish(userId);
+            }
+        }
+    }
+
+    public void requestReplenish(String userId) {
+        try {
+            googleTaskExecutor.execute(() -> replenish(userId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Meet link pool queue full, skipping user {} until the next run", userId);
+        }
+    }
+
+    private void replenish(String userId) {
+        if (!replenishing.add(userId)) {
+            return;
+        }
+
+        try {
+            long missing = poolSize - meetLinkPoolRepository.countByUserId(userId);
+            if (missing <= 0) {
+                return;
+            }
+            String accessToken = googleTokenManager.getAccessToken(userId);
+            if (accessToken == null) {
+                return;
+            }
+
+            // The link outlives the placeholder's date; it only needs to be a valid slot
+            LocalDateTime startTime = LocalDateTime.now().plusYears(1);
+            CompletableFuture<?>[] inserts = new CompletableFuture<?>[(int) missing];
+            for (int i = 0; i < missing; i++) {
+                com.google.api.services.calendar.model.Event placeholder = googleCalendarService.buildEvent(
+                        "Reserved Meet link",
+                        "",
+                        "",
+                        startTime,
+                        startTime.plusMinutes(30)
+                );
+                // Must not show up as busy time for the host (see BusyTimeSyncService)
+                placeholder.setTransparency("transparent");
+
+                // All inserts for this host go out in one batch request
+                inserts[i] = googleCalendarBatcher.insertEvent(accessToken, placeholder)
+                        .thenAccept(created -> store(userId, created));
+            }
+            CompletableFuture.allOf(inserts).join();
+        } catch (Exception e) {
+            log.warn("Meet link pool replenish failed for user {}: {}", userId, e.getMessage());
+        } finally {
+            replenishing.remove(userId);
+        }
+    }
+
+    private void store(String userId, com.google.api.services.calendar.model.Event created) {
+        if (created.getConferenceData() == null ||
+                created.getConferenceData().getEntryPoints() == null ||
+                created.getConferenceData().getEntryPoints().isEmpty()) {
+            return;
+        }
+
+        MeetLinkPoolEntry entry = new MeetLinkPoolEntry();
+        entry.setUserId(userId);
+        entry.setMeetLink(created.getConferenceData().getEntryPoints().get(0).getUri());
+        entry.setGoogleEventId(created.getId());
+        meetLinkPoolRepository.save(entry);
+    }
+}
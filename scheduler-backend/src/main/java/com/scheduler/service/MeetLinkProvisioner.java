@@ -0,0 +1,264 @@
+package com.scheduler.service;
+
+import com.scheduler.model.Event;
+import com.scheduler.model.MeetLinkStatus;
+import com.scheduler.model.MeetingRequest;
+import com.scheduler.model.User;
+import com.scheduler.repository.BookingRepository;
+import com.scheduler.repository.EventRepository;
+import com.scheduler.repository.MeetingRequestRepository;
+import com.scheduler.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Creates Google Calendar events (and so Meet links) outside the request that saved the entity.
+ *
+ * Entities are stored with {@link MeetLinkStatus#PENDING}; after commit the work is handed to
+ * googleTaskExecutor, retried with exponential backoff, and the link plus googleEventId are
+ * backfilled. If every attempt fails the generic Meet link is stored as before. While the Google
+ * circuit is open or its bulkhead is full the entity is left pending instead, and a periodic sweep
+ * picks up anything left pending (e.g. after a restart or a full executor queue).
+ */
+@Service
+@Slf4j
+public class MeetLinkProvisioner {
+
+    public static final String FALLBACK_MEET_LINK = "https://meet.google.com/new";
+
+    private final EventRepository eventRepository;
+    private final MeetingRequestRepository meetingRequestRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final GoogleCalendarService googleCalendarService;
+    private final GoogleCalendarBatcher googleCalendarBatcher;
+    private final GoogleTokenManager googleTokenManager;
+    private final EmailService emailService;
+    private final Executor googleTaskExecutor;
+
+    // Guards against the sweep and the post-commit task working on the same entity in this instance
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${google.meet-link.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${google.meet-link.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${google.meet-link.stale-after-minutes:5}")
+    private long staleAfterMinutes;
+
+    public MeetLinkProvisioner(EventRepository eventRepository,
+                               MeetingRequestRepository meetingRequestRepository,
+                               UserRepository userRepository,
+                               BookingRepository bookingRepository,
+                               GoogleCalendarService googleCalendarService,
+                               GoogleCalendarBatcher googleCalendarBatcher,
+                               GoogleTokenManager googleTokenManager,
+                               EmailService emailService,
+                               @Qualifier("googleTaskExecutor") Executor googleTaskExecutor) {
+        this.eventRepository = eventRepository;
+        this.meetingRequestRepository = meetingRequestRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.googleCalendarService = googleCalendarService;
+        this.googleCalendarBatcher = googleCalendarBatcher;
+        this.googleTokenManager = googleTokenManager;
+        this.emailService = emailService;
+        this.googleTaskExecutor = googleTaskExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMeetLinkRequested(MeetLinkRequestedEvent request) {
+        submit(request);
+    }
+
+    @Scheduled(fixedDelayString = "${google.meet-link.sweep-interval-ms:300000}", initialDelay = 60000)
+    public void retryStalePending() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+
+        eventRepository.findIdsByMeetLinkStatusUpdatedBefore(MeetLinkStatus.PENDING, before)
+                .forEach(id -> submit(new MeetLinkRequestedEvent(MeetLinkRequestedEvent.Target.EVENT, id)));
+        meetingRequestRepository.findIdsByMeetLinkStatusUpdatedBefore(MeetLinkStatus.PENDING, before)
+                .forEach(id -> submit(new MeetLinkRequestedEvent(MeetLinkRequestedEvent.Target.MEETING_REQUEST, id)));
+    }
+
+    private void submit(MeetLinkRequestedEvent request) {
+        try {
+            googleTaskExecutor.execute(() -> provision(request));
+        } catch (RejectedExecutionException e) {
+            // Stays PENDING; the sweep will pick it up
+            log.warn("Meet link queue full, deferring {} {}", request.getTarget(), request.getId());
+        }
+    }
+
+    private void provision(MeetLinkRequestedEvent request) {
+        String key = request.getTarget() + ":" + request.getId();
+        if (!inFlight.add(key)) {
+            return;
+        }
+
+        try {
+            switch (request.getTarget()) {
+                case EVENT -> provisionEvent(request.getId());
+                case MEETING_REQUEST -> provisionMeetingRequest(request.getId());
+            }
+        } catch (GoogleApiUnavailableException e) {
+            log.warn("Google API unavailable, leaving {} pending for the sweep: {}", key, e.getMessage());
+        } catch (Exception e) {
+            log.error("Meet link provisioning failed for {}: {}", key, e.getMessage(), e);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private void provisionEvent(String eventId) {
+        Event event = eventRepository.findById(eventId).orElse(null);
+        if (event == null || event.getMeetLinkStatus() != MeetLinkStatus.PENDING) {
+            return;
+        }
+        User user = userRepository.findById(event.getUserId()).orElse(null);
+
+        // Create a calendar event far in the future for the permanent Meet link
+        // We'll use a placeholder date since we just want the Meet link
+        LocalDateTime startTime = LocalDateTime.now().plusYears(1);
+        LocalDateTime endTime = startTime.plusMinutes(event.getDuration() != null ? event.getDuration() : 30);
+
+        com.google.api.services.calendar.model.Event calendarEvent = createWithRetries(
+                user,
+                event.getTitle() + " (Permanent Meet Link)",
+                event.getDescription(),
+                startTime,
+                endTime,
+                true
+        );
+
+        String meetLink = extractMeetLink(calendarEvent);
+        if (meetLink != null) {
+            eventRepository.completePendingMeetLink(eventId, meetLink, calendarEvent.getId(),
+                    MeetLinkStatus.READY, LocalDateTime.now());
+            int updated = bookingRepository.backfillMeetLink(eventId, FALLBACK_MEET_LINK, meetLink);
+            log.info("Backfilled permanent Meet link for event {} ({} bookings updated)", eventId, updated);
+        } else {
+            log.info("Using Google Meet 'new' link as fallback for event: {}", event.getTitle());
+            eventRepository.completePendingMeetLink(eventId, FALLBACK_MEET_LINK, null,
+                    MeetLinkStatus.FALLBACK, LocalDateTime.now());
+        }
+    }
+
+    private void provisionMeetingRequest(String requestId) {
+        MeetingRequest request = meetingRequestRepository.findById(requestId).orElse(null);
+        if (request == null || request.getMeetLinkStatus() != MeetLinkStatus.PENDING) {
+            return;
+        }
+        User requester = userRepository.findById(request.getRequesterId()).orElse(null);
+        User receiver = userRepository.findById(request.getReceiverId()).orElse(null);
+
+        com.google.api.services.calendar.model.Event calendarEvent = createWithRetries(
+                receiver,
+                request.getTitle(),
+                request.getDescription(),
+                request.getStartTime(),
+                request.getEndTime(),
+                false
+        );
+
+        String meetLink = extractMeetLink(calendarEvent);
+        int updated;
+        if (meetLink != null) {
+            updated = meetingRequestRepository.completePendingMeetLink(requestId, meetLink, calendarEvent.getId(),
+                    MeetLinkStatus.READY, LocalDateTime.now());
+        } else {
+            meetLink = FALLBACK_MEET_LINK;
+            updated = meetingRequestRepository.completePendingMeetLink(requestId, meetLink, null,
+                    MeetLinkStatus.FALLBACK, LocalDateTime.now());
+        }
+
+        // Approval emails carry the link, so they go out once it is known
+        if (updated > 0 && requester != null && receiver != null) {
+            request.setMeetLink(meetLink);
+            request.setMeetLinkStatus(meetLink.equals(FALLBACK_MEET_LINK) ? MeetLinkStatus.FALLBACK : MeetLinkStatus.READY);
+            try {
+                emailService.sendMeetingRequestApproval(request, requester, receiver);
+            } catch (Exception e) {
+                log.error("Failed to send meeting approval emails", e);
+            }
+        }
+    }
+
+    /**
+     * @return the created calendar event, or null when the user has no Google access or all attempts failed
+     * @throws GoogleApiUnavailableException when the guard refused the call; the caller leaves the entity pending
+     */
+    private com.google.api.services.calendar.model.Event createWithRetries(User user, String summary, String description,
+                                                                           LocalDateTime startTime, LocalDateTime endTime,
+                                                                           boolean placeholder) {
+        if (user == null) {
+            return null;
+        }
+
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            // Fetched per attempt so a token that expires mid-retry gets refreshed
+            String accessToken = googleTokenManager.getAccessToken(user.getId());
+            if (accessToken == null) {
+                return null;
+            }
+            try {
+                // Goes through the batcher so a burst of approvals shares batch requests
+                com.google.api.services.calendar.model.Event calendarEvent = googleCalendarService.buildEvent(
+                        summary,
+                        description != null ? description : "",
+                        "",
+                        startTime,
+                        endTime
+                );
+                if (placeholder) {
+                    // Must not show up as busy time for the host (see BusyTimeSyncService)
+                    calendarEvent.setTransparency("transparent");
+                }
+                return googleCalendarBatcher.insertEvent(accessToken, calendarEvent).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof GoogleApiUnavailableException unavailable) {
+                    // Circuit open or bulkhead full: nothing reached Google, so don't burn attempts on it
+                    throw unavailable;
+                }
+                log.warn("Calendar event creation attempt {}/{} failed: {}", attempt, maxAttempts,
+                        e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+
+            if (attempt < maxAttempts) {
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                backoffMs *= 2;
+            }
+        }
+        return null;
+    }
+
+    private String extractMeetLink(com.google.api.services.calendar.model.Event calendarEvent) {
+        if (calendarEvent != null &&
+                calendarEvent.getConferenceData() != null &&
+                calendarEvent.getConferenceData().getEntryPoints() != null &&
+                !calendarEvent.getConferenceData().getEntryPoints().isEmpty()) {
+            return calendarEvent.getConferenceData().getEntryPoints().get(0).getUri();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.scheduler.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when an entity was saved with a PENDING Meet link and needs
+ * a Google Calendar event created in the background.
+ */
+@Data
+@AllArgsConstructor
+public class MeetLinkRequestedEvent {
+
+    private Target target;
+    private String id;
+
+    public enum Target {
+        EVENT,
+        MEETING_REQUEST
+    }
+}
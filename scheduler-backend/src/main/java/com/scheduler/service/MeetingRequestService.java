@@ -1,6 +1,7 @@
 package com.scheduler.service;
 
 import com.scheduler.dto.MeetingRequestDTO;
+import com.scheduler.model.MeetLinkStatus;
 import com.scheduler.model.MeetingRequest;
 import com.scheduler.model.MeetingRequest.MeetingRequestStatus;
 import com.scheduler.model.User;
@@ -8,6 +9,7 @@ import com.scheduler.repository.MeetingRequestRepository;
 import com.scheduler.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +23,8 @@ public class MeetingRequestService {
 
     private final MeetingRequestRepository meetingRequestRepository;
     private final UserRepository userRepository;
-    private final GoogleCalendarService googleCalendarService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<MeetingRequestDTO> getPendingRequestsForUser(String userId) {
@@ -91,11 +93,20 @@ public class MeetingRequestService {
         User receiver = userRepository.findById(request.getReceiverId())
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
-        // Generate Meet link
-        String meetLink = generateMeetLink(receiver, request);
-        request.setMeetLink(meetLink);
         request.setStatus(MeetingRequestStatus.APPROVED);
 
+        // With Google access the Meet link is created after commit by MeetLinkProvisioner,
+        // which also sends the approval emails once the link is known
+        if (receiver.getGoogleAccessToken() != null && !receiver.getGoogleAccessToken().isEmpty()) {
+            request.setMeetLinkStatus(MeetLinkStatus.PENDING);
+            MeetingRequest approvedRequest = meetingRequestRepository.save(request);
+            eventPublisher.publishEvent(new MeetLinkRequestedEvent(
+                    MeetLinkRequestedEvent.Target.MEETING_REQUEST, approvedRequest.getId()));
+            return convertToDTO(approvedRequest);
+        }
+
+        request.setMeetLink(MeetLinkProvisioner.FALLBACK_MEET_LINK);
+        request.setMeetLinkStatus(MeetLinkStatus.FALLBACK);
         MeetingRequest approvedRequest = meetingRequestRepository.save(request);
 
         // Send approval emails to both parties
@@ -137,37 +148,6 @@ public class MeetingRequestService {
         return convertToDTO(rejectedRequest);
     }
 
-    private String generateMeetLink(User user, MeetingRequest request) {
-        try {
-            if (user.getGoogleAccessToken() != null && !user.getGoogleAccessToken().isEmpty()) {
-                log.info("Creating Google Calendar event for meeting request");
-                com.google.api.services.calendar.model.Event calendarEvent =
-                        googleCalendarService.createCalendarEvent(
-                                user.getGoogleAccessToken(),
-                                request.getTitle(),
-                                request.getDescription() != null ? request.getDescription() : "",
-                                "", // No specific attendee email here, will be in the email
-                                request.getStartTime(),
-                                request.getEndTime()
-                        );
-
-                if (calendarEvent.getConferenceData() != null &&
-                        calendarEvent.getConferenceData().getEntryPoints() != null &&
-                        !calendarEvent.getConferenceData().getEntryPoints().isEmpty()) {
-                    String meetLink = calendarEvent.getConferenceData().getEntryPoints().get(0).getUri();
-                    log.info("Successfully created Meet link: {}", meetLink);
-                    request.setGoogleEventId(calendarEvent.getId());
-                    return meetLink;
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to create Google Calendar event: {}", e.getMessage(), e);
-        }
-
-        // Fallback to new meeting link
-        return "https://meet.google.com/new";
-    }
-
     private MeetingRequestDTO convertToDTO(MeetingRequest request) {
         MeetingRequestDTO dto = new MeetingRequestDTO();
         dto.setId(request.getId());
@@ -179,6 +159,7 @@ public class MeetingRequestService {
         dto.setEndTime(request.getEndTime());
         dto.setStatus(request.getStatus());
         dto.setMeetLink(request.getMeetLink());
+        dto.setMeetLinkStatus(request.getMeetLinkStatus());
         dto.setGoogleEventId(request.getGoogleEventId());
         dto.setRejectionReason(request.getRejectionReason());
         dto.setCreatedAt(request.getCreatedAt());
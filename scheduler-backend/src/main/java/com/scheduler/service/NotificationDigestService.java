@@ -0,0 +1,57 @@
+package com.scheduler.service;
+
+import com.scheduler.model.NotificationDigestEntry;
+import com.scheduler.repository.NotificationDigestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Turns buffered NotificationDigestEntry rows into one digest email per recipient.
+ *
+ * With {@code app.email.digest.enabled}, booking notifications to hosts and connection request
+ * notifications are stored instead of sent. Once a recipient's oldest entry has waited
+ * {@code app.email.digest.window-minutes}, all of their entries are rendered into a single
+ * email and deleted in the same transaction that writes it to the outbox. The buffer is a
+ * table, so it survives restarts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDigestService {
+
+    private final NotificationDigestRepository notificationDigestRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.email.digest.window-minutes:15}")
+    private long windowMinutes;
+
+    @Scheduled(fixedDelayString = "${app.email.digest.flush-interval-ms:60000}", initialDelay = 20000)
+    public void flushDue() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(windowMinutes);
+        for (String recipient : notificationDigestRepository.findRecipientsDueBefore(cutoff)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> flush(recipient));
+            } catch (Exception e) {
+                // Entries stay buffered and are retried on the next run
+                log.error("Failed to send notification digest to {}: {}", recipient, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void flush(String recipient) {
+        List<NotificationDigestEntry> entries = notificationDigestRepository.findByRecipientOrderByCreatedAtAsc(recipient);
+        if (entries.isEmpty()) {
+            return;
+        }
+        emailService.sendNotificationDigest(recipient, entries.get(entries.size() - 1).getRecipientName(), entries);
+        notificationDigestRepository.deleteAllInBatch(entries);
+    }
+}
@@ -0,0 +1,196 @@
+package com.scheduler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps authenticated SMTP connections open between sends.
+ *
+ * JavaMailSender.send opens a new connection (and STARTTLS handshake) for every message.
+ * Here a sender borrows an idle connection, sends over it and hands it back, so a batch of
+ * outbox rows shares a few connections. A connection is closed after
+ * {@code app.email.smtp-pool.max-messages-per-connection} messages or when it has been idle
+ * for {@code app.email.smtp-pool.idle-timeout-ms}. Falls back to plain
+ * {@code mailSender.send} when disabled or when the sender is not a JavaMailSenderImpl.
+ */
+@Service
+@Slf4j
+public class SmtpConnectionPool {
+
+    private final JavaMailSender mailSender;
+    private final Counter connectionsOpened;
+
+    // Guarded by lock; most recently used first
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${app.email.smtp-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.email.smtp-pool.max-idle:5}")
+    private int maxIdle;
+
+    @Value("${app.email.smtp-pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${app.email.smtp-pool.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    public SmtpConnectionPool(JavaMailSender mailSender, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.connectionsOpened = Counter.builder("email.smtp.connections.opened")
+                .description("SMTP connections opened for sending")
+                .register(meterRegistry);
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        if (!enabled || !(mailSender instanceof JavaMailSenderImpl sender)) {
+            mailSender.send(message);
+            return;
+        }
+
+        // What JavaMailSenderImpl.send does before handing the message to its transport
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        PooledTransport pooled = borrow(sender);
+        boolean reusable = false;
+        try {
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+            pooled.messagesSent++;
+            reusable = pooled.messagesSent < maxMessagesPerConnection;
+        } finally {
+            if (reusable) {
+                giveBack(pooled);
+            } else {
+                close(pooled);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.smtp-pool.idle-timeout-ms:30000}")
+    public void closeIdle() {
+        List<PooledTransport> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<PooledTransport> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledTransport pooled = it.next();
+                if (isExpired(pooled)) {
+                    it.remove();
+                    expired.add(pooled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expired.forEach(this::close);
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        List<PooledTransport> all;
+        lock.lock();
+        try {
+            all = new ArrayList<>(idle);
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+        all.forEach(this::close);
+    }
+
+    private PooledTransport borrow(JavaMailSenderImpl sender) throws MessagingException {
+        while (true) {
+            PooledTransport pooled;
+            lock.lock();
+            try {
+                pooled = idle.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+            if (pooled == null) {
+                return open(sender);
+            }
+            // isConnected sends a NOOP, so connections the server dropped are caught here
+            if (!isExpired(pooled) && pooled.transport.isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+    }
+
+    private PooledTransport open(JavaMailSenderImpl sender) throws MessagingException {
+        String protocol = sender.getProtocol() != null ? sender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport transport = sender.getSession().getTransport(protocol);
+
+        // Same empty-credential handling as JavaMailSenderImpl.connectTransport
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(sender.getHost(), sender.getPort(), username, password);
+        connectionsOpened.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport pooled) {
+        pooled.lastUsedAt = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (idle.size() < maxIdle) {
+                idle.addFirst(pooled);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        close(pooled);
+    }
+
+    private boolean isExpired(PooledTransport pooled) {
+        return System.currentTimeMillis() - pooled.lastUsedAt >= idleTimeoutMs;
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.scheduler.service;
 
+import com.scheduler.dto.ResourceVersion;
 import com.scheduler.dto.UserDTO;
 import com.scheduler.model.User;
 import com.scheduler.repository.UserRepository;
+import com.scheduler.repository.VersionStamp;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CascadeDeleteService cascadeDeleteService;
 
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
@@ -44,6 +47,12 @@ public class UserService {
         return convertToDTO(user);
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getUserVersionByUsername(String username) {
+        VersionStamp stamp = userRepository.findVersionStampByUsername(username);
+        return ResourceVersion.of(stamp.getLastModified(), username, stamp.getTotal());
+    }
+
     @Transactional
     public UserDTO createUser(UserDTO userDTO) {
         if (userRepository.existsByFirebaseUid(userDTO.getFirebaseUid())) {
@@ -71,6 +80,7 @@ public class UserService {
         // Update Google tokens if provided
         if (userDTO.getGoogleAccessToken() != null) {
             existingUser.setGoogleAccessToken(userDTO.getGoogleAccessToken());
+            existingUser.setGoogleTokenExpiresAt(userDTO.getGoogleTokenExpiresAt());
         }
         if (userDTO.getGoogleRefreshToken() != null) {
             existingUser.setGoogleRefreshToken(userDTO.getGoogleRefreshToken());
@@ -80,12 +90,12 @@ public class UserService {
         return convertToDTO(updatedUser);
     }
 
-    @Transactional
+    // Not transactional: CascadeDeleteService commits each chunk separately
     public void deleteUser(String id) {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException("User not found with id: " + id);
         }
-        userRepository.deleteById(id);
+        cascadeDeleteService.deleteUser(id);
     }
 
     private UserDTO convertToDTO(User user) {
@@ -99,6 +109,7 @@ public class UserService {
         dto.setPhoneNumber(user.getPhoneNumber());
         dto.setGoogleAccessToken(user.getGoogleAccessToken());
         dto.setGoogleRefreshToken(user.getGoogleRefreshToken());
+        dto.setGoogleTokenExpiresAt(user.getGoogleTokenExpiresAt());
         dto.setCreatedAt(user.getCreatedAt());
         dto.setUpdatedAt(user.getUpdatedAt());
         return dto;
@@ -115,6 +126,7 @@ public class UserService {
         user.setPhoneNumber(dto.getPhoneNumber());
         user.setGoogleAccessToken(dto.getGoogleAccessToken());
         user.setGoogleRefreshToken(dto.getGoogleRefreshToken());
+        user.setGoogleTokenExpiresAt(dto.getGoogleTokenExpiresAt());
         return user;
     }
 }
@@ -0,0 +1,183 @@
+package com.scheduler.config;
+
+import com.scheduler.service.GoogleApiGuard;
+import com.scheduler.service.GoogleCalendarService;
+import com.scheduler.service.SmtpConnectionPool;
+import com.scheduler.support.GoogleTestClients;
+import com.scheduler.support.LocalSmtpServer;
+import com.scheduler.support.StubGoogleServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records JFR jdk.VirtualThreadPinned events (threshold 0) while the SMTP and Google client paths
+ * run on the executors the app uses in virtual-thread mode. Any blocking inside a synchronized
+ * block on those paths pins a carrier thread and fails the test.
+ */
+class VirtualThreadPinningTest {
+
+    private static final int CONCURRENT_CALLS = 100;
+
+    private LocalSmtpServer smtpServer;
+    private StubGoogleServer googleServer;
+
+    @BeforeEach
+    void startServers() throws Exception {
+        smtpServer = new LocalSmtpServer();
+        googleServer = new StubGoogleServer();
+    }
+
+    @AfterEach
+    void stopServers() {
+        smtpServer.close();
+        googleServer.close();
+    }
+
+    @Test
+    void detectsBlockingInsideSynchronized() throws Exception {
+        Object monitor = new Object();
+
+        List<RecordedEvent> pinned = recordPinning(() -> Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join());
+
+        assertThat(pinned).as("the recording must see a sleep inside synchronized").isNotEmpty();
+    }
+
+    @Test
+    void smtpSendsDoNotPinInVirtualThreadMode() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.getPort());
+
+        SmtpConnectionPool pool = new SmtpConnectionPool(mailSender, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "maxIdle", 5);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 100);
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", 30000L);
+
+        Executor emailTaskExecutor = new EmailConfig().emailTaskExecutor();
+
+        List<RecordedEvent> pinned = recordPinning(() -> runConcurrently(emailTaskExecutor, () -> {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom("noreply@scheduler.test");
+            helper.setTo("attendee@example.test");
+            helper.setSubject("Booking confirmed");
+            helper.setText("<p>See you there</p>", true);
+            pool.send(message);
+        }));
+        pool.closeAll();
+
+        assertThat(smtpServer.awaitMessages(CONCURRENT_CALLS, 10, TimeUnit.SECONDS)).isTrue();
+        assertThat(pinned).as(describe(pinned)).isEmpty();
+    }
+
+    @Test
+    void googleCallsDoNotPinInVirtualThreadMode() throws Exception {
+        GoogleApiConfig config = new GoogleApiConfig();
+        ReflectionTestUtils.setField(config, "virtualThreads", true);
+        ReflectionTestUtils.setField(config, "maxConcurrentCalls", 20);
+        ReflectionTestUtils.setField(config, "maxQueuedCalls", CONCURRENT_CALLS);
+        AsyncTaskExecutor googleCallExecutor = config.googleCallExecutor();
+        Executor googleTaskExecutor = config.googleTaskExecutor();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GoogleApiGuard guard = GoogleTestClients.guard(googleCallExecutor, meterRegistry, Map.of());
+        GoogleCalendarService calendarService = GoogleTestClients.calendarService(
+                GoogleTestClients.transport(meterRegistry), guard, googleServer.getRootUrl());
+        googleServer.addBusyPeriod("2030-01-07T09:00:00Z", "2030-01-07T10:00:00Z");
+
+        LocalDateTime from = LocalDateTime.of(2030, 1, 7, 0, 0);
+        // First use loads and initializes the client classes, which briefly pins; only steady state counts
+        calendarService.queryBusy("warm-up-token", from, from.plusDays(1));
+
+        List<RecordedEvent> pinned = recordPinning(() -> runConcurrently(googleTaskExecutor, () -> {
+            assertThat(calendarService.queryBusy("token", from, from.plusDays(1))).hasSize(1);
+            calendarService.createCalendarEvent("token", "Intro call", "", "guest@example.test",
+                    from.plusHours(9), from.plusHours(10));
+        }));
+
+        assertThat(googleServer.getRequestCount("events")).isEqualTo(CONCURRENT_CALLS);
+        assertThat(pinned).as(describe(pinned)).isEmpty();
+    }
+
+    private void runConcurrently(Executor executor, ThrowingRunnable call) {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[CONCURRENT_CALLS];
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            calls[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    call.run();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(calls).join();
+    }
+
+    private List<RecordedEvent> recordPinning(ThrowingRunnable work) throws Exception {
+        Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Application and library frames of the first pinned stack, for the failure message
+    private String describe(List<RecordedEvent> pinned) {
+        if (pinned.isEmpty() || pinned.get(0).getStackTrace() == null) {
+            return "pinned virtual threads";
+        }
+        String frames = pinned.get(0).getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .filter(name -> !name.startsWith("java.") && !name.startsWith("jdk."))
+                .limit(15)
+                .collect(Collectors.joining("\n  "));
+        return pinned.size() + " pinned events, first at:\n  " + frames;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,208 @@
+package com.scheduler.controller;
+
+import com.scheduler.model.CalendarWatchChannel;
+import com.scheduler.model.User;
+import com.scheduler.repository.CalendarWatchChannelRepository;
+import com.scheduler.repository.UserRepository;
+import com.scheduler.service.BusyTimeSyncService;
+import com.scheduler.service.CalendarWatchService;
+import com.scheduler.service.UserService;
+import com.scheduler.support.StubGoogleServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Google Calendar push notifications posted to /api/google-calendar/notifications, and the watch
+ * channel lifecycle behind them, with StubGoogleServer standing in for the Calendar API.
+ */
+@SpringBootTest(properties = "google.calendar.webhook-url=https://scheduler.test/api/google-calendar/notifications")
+@AutoConfigureMockMvc
+class CalendarNotificationWebhookTest {
+
+    private static final StubGoogleServer GOOGLE = startGoogle();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CalendarWatchService calendarWatchService;
+
+    @Autowired
+    private CalendarWatchChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private BusyTimeSyncService busyTimeSyncService;
+
+    @DynamicPropertySource
+    static void googleApi(DynamicPropertyRegistry registry) {
+        registry.add("google.api.root-url", GOOGLE::getRootUrl);
+    }
+
+    @AfterAll
+    static void stopGoogle() {
+        GOOGLE.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GOOGLE.reset();
+    }
+
+    @Test
+    void notificationForAKnownChannelQueuesAResync() throws Exception {
+        CalendarWatchChannel channel = channel("host-" + UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+
+        mockMvc.perform(notification(channel.getId(), channel.getToken(), "exists")).andExpect(status().isOk());
+
+        verify(busyTimeSyncService, times(1)).requestSync(channel.getUserId());
+    }
+
+    @Test
+    void syncMessageOnlyConfirmsTheChannel() throws Exception {
+        CalendarWatchChannel channel = channel("host-" + UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+
+        mockMvc.perform(notification(channel.getId(), channel.getToken(), "sync")).andExpect(status().isOk());
+
+        verify(busyTimeSyncService, never()).requestSync(anyString());
+    }
+
+    @Test
+    void unknownChannelsAndWrongTokensAreIgnored() throws Exception {
+        CalendarWatchChannel channel = channel("host-" + UUID.randomUUID(), LocalDateTime.now().plusDays(7));
+
+        // Always 200 so Google does not retry, whatever was wrong with the call
+        mockMvc.perform(notification(channel.getId(), "not-the-token", "exists")).andExpect(status().isOk());
+        mockMvc.perform(notification(channel.getId(), channel.getToken() + "0", "exists")).andExpect(status().isOk());
+        mockMvc.perform(notification(channel.getId(), null, "exists")).andExpect(status().isOk());
+        mockMvc.perform(notification("no-such-channel", channel.getToken(), "exists")).andExpect(status().isOk());
+        mockMvc.perform(notification(null, channel.getToken(), "exists")).andExpect(status().isOk());
+
+        verify(busyTimeSyncService, never()).requestSync(anyString());
+    }
+
+    @Test
+    void channelCloseToExpiryIsReplacedThenStopped() throws Exception {
+        User host = googleUser();
+        CalendarWatchChannel expiring = channel(host.getId(), LocalDateTime.now().plusHours(1));
+
+        // First pass registers a replacement and leaves the old channel running for the overlap
+        calendarWatchService.maintainChannels();
+        await(() -> channelRepository.findByUserId(host.getId()).size() == 2);
+        assertThat(GOOGLE.getRequestCount("watch")).isEqualTo(1);
+        assertThat(GOOGLE.getStoppedChannels()).isEmpty();
+
+        CalendarWatchChannel replacement = channelRepository.findByUserId(host.getId()).stream()
+                .filter(channel -> !channel.getId().equals(expiring.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(replacement.getResourceId()).isEqualTo("resource-" + replacement.getId());
+        assertThat(replacement.getExpiresAt()).isAfter(LocalDateTime.now().plusDays(6));
+
+        // Next pass sees the user covered and stops the old one
+        calendarWatchService.maintainChannels();
+        await(() -> !channelRepository.existsById(expiring.getId()));
+        assertThat(GOOGLE.getStoppedChannels()).containsExactly(expiring.getId());
+        assertThat(GOOGLE.getRequestCount("watch")).isEqualTo(1);
+
+        mockMvc.perform(notification(replacement.getId(), replacement.getToken(), "exists")).andExpect(status().isOk());
+        mockMvc.perform(notification(expiring.getId(), expiring.getToken(), "exists")).andExpect(status().isOk());
+        verify(busyTimeSyncService, times(1)).requestSync(host.getId());
+    }
+
+    @Test
+    void deletingAUserStopsTheirChannels() throws Exception {
+        User host = googleUser();
+        CalendarWatchChannel channel = channel(host.getId(), LocalDateTime.now().plusDays(7));
+
+        userService.deleteUser(host.getId());
+
+        assertThat(channelRepository.findByUserId(host.getId())).isEmpty();
+        assertThat(GOOGLE.getStoppedChannels()).containsExactly(channel.getId());
+
+        mockMvc.perform(notification(channel.getId(), channel.getToken(), "exists")).andExpect(status().isOk());
+        verify(busyTimeSyncService, never()).requestSync(anyString());
+    }
+
+    private static MockHttpServletRequestBuilder notification(String channelId, String token, String state) {
+        MockHttpServletRequestBuilder request = post("/api/google-calendar/notifications")
+                .header("X-Goog-Resource-State", state)
+                .header("X-Goog-Resource-ID", "resource");
+        if (channelId != null) {
+            request.header("X-Goog-Channel-ID", channelId);
+        }
+        if (token != null) {
+            request.header("X-Goog-Channel-Token", token);
+        }
+        return request;
+    }
+
+    private CalendarWatchChannel channel(String userId, LocalDateTime expiresAt) {
+        CalendarWatchChannel channel = new CalendarWatchChannel();
+        channel.setId(UUID.randomUUID().toString());
+        channel.setUserId(userId);
+        channel.setResourceId("resource-" + channel.getId());
+        channel.setToken(UUID.randomUUID().toString().replace("-", ""));
+        channel.setExpiresAt(expiresAt);
+        return channelRepository.save(channel);
+    }
+
+    // A connected host whose access token is still valid, so no refresh is attempted
+    private User googleUser() {
+        User user = new User();
+        String key = "host-" + UUID.randomUUID();
+        user.setFirebaseUid("webhook-" + key);
+        user.setEmail(key + "@example.test");
+        user.setUsername(key);
+        user.setName("Host");
+        user.setGoogleAccessToken("access-" + key);
+        user.setGoogleRefreshToken("refresh-" + key);
+        user.setGoogleTokenExpiresAt(LocalDateTime.now().plusHours(1));
+        return userRepository.save(user);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static StubGoogleServer startGoogle() {
+        try {
+            return new StubGoogleServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.scheduler.service;
+
+import com.scheduler.model.Availability;
+import com.scheduler.model.BusyInterval;
+import com.scheduler.model.DayAvailability;
+import com.scheduler.model.DayOfWeek;
+import com.scheduler.repository.AvailabilityRepository;
+import com.scheduler.repository.BusyIntervalRepository;
+import com.scheduler.repository.DayAvailabilityRepository;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Slot generation against stored busy intervals: a 09:00-12:00 window every day, with Google
+ * busy time carved out of it.
+ */
+class AvailabilityServiceTest {
+
+    private static final String USER_ID = "host";
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+
+    private final List<BusyInterval> busy = new ArrayList<>();
+    private AvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        Availability availability = new Availability();
+        availability.setId("availability");
+        availability.setUserId(USER_ID);
+        availability.setTimeGap(0);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            DayAvailability window = new DayAvailability();
+            window.setAvailabilityId(availability.getId());
+            window.setDay(day);
+            window.setStartTime(TOMORROW.atTime(9, 0));
+            window.setEndTime(TOMORROW.atTime(12, 0));
+            availability.getDays().add(window);
+        }
+
+        AvailabilityRepository availabilityRepository = mock(AvailabilityRepository.class);
+        when(availabilityRepository.findByUserId(USER_ID)).thenReturn(Optional.of(availability));
+        when(availabilityRepository.findByUserIdWithDays(USER_ID)).thenReturn(Optional.of(availability));
+        DayAvailabilityRepository dayAvailabilityRepository = mock(DayAvailabilityRepository.class);
+        when(dayAvailabilityRepository.findByAvailabilityId(availability.getId())).thenReturn(availability.getDays());
+        BusyIntervalRepository busyIntervalRepository = mock(BusyIntervalRepository.class);
+        when(busyIntervalRepository.findOverlapping(eq(USER_ID), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(busy);
+
+        service = new AvailabilityService(availabilityRepository, dayAvailabilityRepository,
+                mock(UserRepository.class), busyIntervalRepository);
+    }
+
+    @Test
+    void slotsOverlappingBusyTimeAreDropped() {
+        busy(TOMORROW.atTime(9, 30), TOMORROW.atTime(10, 15));
+
+        List<Map<String, Object>> dates = service.getUserAvailableTimeSlots(USER_ID, 30);
+
+        // 09:00 ends as the busy block starts and 10:30 starts after it ends; both stay
+        assertThat(slotTimes(dates, TOMORROW)).containsExactly("09:00", "10:30", "11:00", "11:30");
+        assertThat(slotTimes(dates, TOMORROW.plusDays(1)))
+                .containsExactly("09:00", "09:30", "10:00", "10:30", "11:00", "11:30");
+    }
+
+    @Test
+    void fullyBusyDateIsLeftOut() {
+        busy(TOMORROW.atStartOfDay(), TOMORROW.plusDays(1).atStartOfDay());
+
+        List<Map<String, Object>> dates = service.getUserAvailableTimeSlots(USER_ID, 30);
+
+        assertThat(dates).extracting(date -> date.get("date")).doesNotContain(TOMORROW.toString());
+        assertThat(slotTimes(dates, TOMORROW.plusDays(1))).hasSize(6);
+    }
+
+    @Test
+    void busyTimeAppliesToEveryDuration() {
+        busy(TOMORROW.atTime(9, 30), TOMORROW.atTime(10, 15));
+        busy(TOMORROW.atTime(11, 45), TOMORROW.atTime(13, 0));
+
+        Map<Integer, List<Map<String, Object>>> byDuration =
+                service.getUserAvailableTimeSlots(USER_ID, List.of(30, 60), 3);
+
+        assertThat(slotTimes(byDuration.get(30), TOMORROW)).containsExactly("09:00", "10:30", "11:00");
+        assertThat(slotTimes(byDuration.get(60), TOMORROW)).isEmpty();
+        assertThat(slotTimes(byDuration.get(60), TOMORROW.plusDays(1))).containsExactly("09:00", "10:00", "11:00");
+    }
+
+    private void busy(LocalDateTime start, LocalDateTime end) {
+        busy.add(new BusyInterval(null, USER_ID, start, end));
+        busy.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> slotTimes(List<Map<String, Object>> dates, LocalDate date) {
+        return dates.stream()
+                .filter(entry -> date.toString().equals(entry.get("date")))
+                .flatMap(entry -> ((List<Map<String, String>>) entry.get("slots")).stream())
+                .map(slot -> slot.get("time"))
+                .toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.BookingDTO;
+import com.scheduler.model.EmailOutbox;
+import com.scheduler.model.Event;
+import com.scheduler.model.MeetLinkStatus;
+import com.scheduler.model.User;
+import com.scheduler.repository.EmailOutboxRepository;
+import com.scheduler.repository.EventRepository;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The .ics attachments queued over a booking's life: the same UID throughout, SEQUENCE bumped on
+ * reschedule, and METHOD:CANCEL with a higher SEQUENCE on delete.
+ */
+@SpringBootTest
+class BookingInviteTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void rescheduleBumpsTheSequenceAndDeleteCancels() {
+        User host = createUser();
+        Event event = new Event();
+        event.setTitle("Intro call");
+        event.setDuration(30);
+        event.setUserId(host.getId());
+        event.setMeetLink(MeetLinkProvisioner.FALLBACK_MEET_LINK);
+        event.setMeetLinkStatus(MeetLinkStatus.FALLBACK);
+        event = eventRepository.save(event);
+
+        String attendee = "attendee-" + UUID.randomUUID() + "@example.test";
+        LocalDateTime start = LocalDateTime.now().plusMonths(2).truncatedTo(ChronoUnit.HOURS);
+        BookingDTO booking = new BookingDTO();
+        booking.setEventId(event.getId());
+        booking.setUserId(host.getId());
+        booking.setName("Attendee");
+        booking.setEmail(attendee);
+        booking.setStartTime(start);
+        booking.setEndTime(start.plusMinutes(30));
+        booking.setGoogleEventId("");
+        booking = bookingService.createBooking(booking);
+        String uid = "UID:" + booking.getId() + "@scheduler.com\r\n";
+
+        booking.setStartTime(start.plusDays(1));
+        booking.setEndTime(start.plusDays(1).plusMinutes(30));
+        bookingService.updateBooking(booking.getId(), booking);
+        bookingService.deleteBooking(booking.getId());
+
+        List<String> invites = attachmentsFor(attendee);
+        assertThat(invites).hasSize(3).allSatisfy(ics -> assertThat(ics).contains(uid));
+        assertThat(invites).filteredOn(ics -> ics.contains("SEQUENCE:0\r\n"))
+                .singleElement().asString().contains("METHOD:REQUEST\r\n");
+        assertThat(invites).filteredOn(ics -> ics.contains("SEQUENCE:1\r\n"))
+                .singleElement().asString().contains("METHOD:REQUEST\r\n");
+        assertThat(invites).filteredOn(ics -> ics.contains("SEQUENCE:2\r\n"))
+                .singleElement().asString().contains("METHOD:CANCEL\r\n", "STATUS:CANCELLED\r\n");
+    }
+
+    private List<String> attachmentsFor(String recipient) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(email -> recipient.equals(email.getRecipient()))
+                .map(EmailOutbox::getAttachmentContent)
+                .toList();
+    }
+
+    private User createUser() {
+        User user = new User();
+        String key = "host-" + UUID.randomUUID();
+        user.setFirebaseUid("invite-" + key);
+        user.setEmail(key + "@example.test");
+        user.setUsername(key);
+        user.setName("Host");
+        return userRepository.save(user);
+    }
+}
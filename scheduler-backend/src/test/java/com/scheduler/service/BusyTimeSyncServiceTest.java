@@ -0,0 +1,149 @@
+package com.scheduler.service;
+
+import com.scheduler.repository.AvailabilityRepository;
+import com.scheduler.repository.BusyIntervalRepository;
+import com.scheduler.repository.CalendarSyncStateRepository;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers BusyTimeSyncService.requestSync for one user from many threads and checks that runs
+ * never overlap, that requests arriving mid-run coalesce into one follow-up, and that no
+ * request is left without a run starting after it.
+ */
+class BusyTimeSyncServiceTest {
+
+    private static final String USER_ID = "host";
+    private static final int ROUNDS = 500;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final AtomicLong lastRunStartNanos = new AtomicLong();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private ThreadPoolTaskExecutor googleTaskExecutor;
+    private BusyTimeSyncService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        googleTaskExecutor = new ThreadPoolTaskExecutor();
+        googleTaskExecutor.setCorePoolSize(8);
+        googleTaskExecutor.setThreadNamePrefix("google-task-");
+        googleTaskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        googleTaskExecutor.initialize();
+
+        AvailabilityRepository availabilityRepository = mock(AvailabilityRepository.class);
+        when(availabilityRepository.existsByUserId(USER_ID)).thenReturn(true);
+        GoogleTokenManager googleTokenManager = mock(GoogleTokenManager.class);
+        when(googleTokenManager.getAccessToken(USER_ID)).thenReturn("token");
+
+        GoogleCalendarService googleCalendarService = mock(GoogleCalendarService.class);
+        when(googleCalendarService.queryBusy(anyString(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    lastRunStartNanos.set(System.nanoTime());
+                    runs.incrementAndGet();
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        gate.await(5, TimeUnit.SECONDS);
+                        return List.of();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                });
+
+        service = new BusyTimeSyncService(mock(UserRepository.class), availabilityRepository,
+                mock(BusyIntervalRepository.class), mock(CalendarSyncStateRepository.class),
+                googleCalendarService, googleTokenManager, mock(TransactionTemplate.class), googleTaskExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleTaskExecutor.shutdown();
+    }
+
+    @Test
+    void requestsDuringARunCoalesceIntoOneFollowUp() throws Exception {
+        gate = new CountDownLatch(1);
+        service.requestSync(USER_ID);
+        awaitRuns(1);
+
+        for (int i = 0; i < 5; i++) {
+            service.requestSync(USER_ID);
+        }
+        // Wait until the extra requests have been seen by the pool and bowed out
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (googleTaskExecutor.getActiveCount() > 1 || googleTaskExecutor.getQueueSize() > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        gate.countDown();
+        awaitQuiet();
+
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    void everyRequestIsFollowedByARun() throws Exception {
+        int threads = 8;
+        for (int round = 0; round < ROUNDS; round++) {
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            AtomicLong lastRequestNanos = new AtomicLong();
+            Thread[] callers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                callers[t] = Thread.ofPlatform().start(() -> {
+                    try {
+                        barrier.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    lastRequestNanos.accumulateAndGet(System.nanoTime(), Math::max);
+                    service.requestSync(USER_ID);
+                });
+            }
+            for (Thread caller : callers) {
+                caller.join();
+            }
+            awaitQuiet();
+
+            assertThat(lastRunStartNanos.get())
+                    .as("round %d: a run must start after the last request", round)
+                    .isGreaterThan(lastRequestNanos.get());
+        }
+        assertThat(maxRunning.get()).as("runs for one user never overlap").isEqualTo(1);
+    }
+
+    private void awaitRuns(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runs.get() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitQuiet() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (googleTaskExecutor.getActiveCount() > 0 || googleTaskExecutor.getQueueSize() > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
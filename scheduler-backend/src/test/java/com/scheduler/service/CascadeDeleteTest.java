@@ -0,0 +1,82 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.ConnectionSuggestionDTO;
+import com.scheduler.model.User;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Deleting users and events through CascadeDeleteService, and what the in-memory connection
+ * graph and suggestion cache see afterwards.
+ */
+@SpringBootTest
+class CascadeDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private ConnectionGraphIndex connectionGraphIndex;
+
+    @Autowired
+    private ConnectionSuggestionService connectionSuggestionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void deletedUserLeavesTheGraphAndSuggestions() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        User carol = createUser("carol");
+        connect(alice, bob);
+        connect(bob, carol);
+        // Cache carol's suggestions while alice is still there
+        assertThat(connectionSuggestionService.getSuggestions(carol.getId(), 10))
+                .extracting(ConnectionSuggestionDTO::getUserId).containsExactly(alice.getId());
+
+        userService.deleteUser(alice.getId());
+
+        assertThat(connectionGraphIndex.areConnected(alice.getId(), bob.getId())).isFalse();
+        assertThat(connectionSuggestionService.getSuggestions(carol.getId(), 10)).isEmpty();
+
+        // The connection row outlives the user, but a reload must not bring the edge back
+        connectionGraphIndex.rebuild();
+        assertThat(connectionGraphIndex.areConnected(alice.getId(), bob.getId())).isFalse();
+        assertThat(connectionGraphIndex.areConnected(bob.getId(), carol.getId())).isTrue();
+    }
+
+    @Test
+    void deletingAMissingEventFails() {
+        assertThatThrownBy(() -> eventService.deleteEvent("no-such-event"))
+                .hasMessage("Event not found with id: no-such-event");
+    }
+
+    private void connect(User sender, User receiver) {
+        String connectionId = connectionService.sendConnectionRequest(sender.getId(), receiver.getId(), null).getId();
+        connectionService.acceptConnection(connectionId);
+    }
+
+    private User createUser(String role) {
+        User user = new User();
+        String key = role + "-" + UUID.randomUUID();
+        user.setFirebaseUid("delete-" + key);
+        user.setEmail(key + "@example.test");
+        user.setUsername(key);
+        user.setName(role);
+        return userRepository.save(user);
+    }
+}
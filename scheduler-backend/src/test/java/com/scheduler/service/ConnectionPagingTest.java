@@ -0,0 +1,84 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.ConnectionDTO;
+import com.scheduler.dto.ConnectionPageDTO;
+import com.scheduler.model.Connection;
+import com.scheduler.model.Connection.ConnectionStatus;
+import com.scheduler.model.User;
+import com.scheduler.repository.ConnectionRepository;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging of accepted connections when some rows predate connectedAt and have it null.
+ * The rows are saved directly, so the in-memory ConnectionGraphIndex never hears of them.
+ */
+@SpringBootTest
+class ConnectionPagingTest {
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void pagesCoverRowsWithoutConnectedAtExactlyOnce() {
+        User owner = createUser("owner");
+        List<String> expected = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 7; i++) {
+            // Every other row is a legacy one with no connectedAt
+            LocalDateTime connectedAt = i % 2 == 0 ? null : now.minusDays(i);
+            expected.add(accepted(owner, createUser("friend"), connectedAt).getId());
+        }
+        // No index rebuild: rows written behind its back (as by another instance) are still listed
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            ConnectionPageDTO page = connectionService.getAcceptedConnectionsPage(owner.getId(), cursor, 2);
+            assertThat(page.getTotalCount()).isEqualTo(7);
+            page.getConnections().stream().map(ConnectionDTO::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+            if (cursor != null) {
+                assertThat(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8))
+                        .doesNotStartWith("null");
+            }
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(7).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private Connection accepted(User sender, User receiver, LocalDateTime connectedAt) {
+        Connection connection = new Connection();
+        connection.setSenderId(sender.getId());
+        connection.setReceiverId(receiver.getId());
+        connection.setStatus(ConnectionStatus.ACCEPTED);
+        connection.setConnectedAt(connectedAt);
+        return connectionRepository.save(connection);
+    }
+
+    private User createUser(String role) {
+        User user = new User();
+        String key = role + "-" + java.util.UUID.randomUUID();
+        user.setFirebaseUid("paging-" + key);
+        user.setEmail(key + "@example.test");
+        user.setUsername(key);
+        user.setName(role);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,83 @@
+package com.scheduler.service;
+
+import com.scheduler.model.Connection;
+import com.scheduler.model.Connection.ConnectionStatus;
+import com.scheduler.model.User;
+import com.scheduler.repository.ConnectionRepository;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * One row per user pair in either direction, including pairs whose legacy row has no pairKey.
+ */
+@SpringBootTest
+class ConnectionRequestTest {
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void requestInTheOppositeDirectionIsRejected() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+
+        connectionService.sendConnectionRequest(alice.getId(), bob.getId(), null);
+
+        assertThatThrownBy(() -> connectionService.sendConnectionRequest(bob.getId(), alice.getId(), null))
+                .hasMessage("Connection request already exists");
+        assertThat(rowsBetween(alice, bob)).isEqualTo(1);
+    }
+
+    @Test
+    void legacyRowWithoutPairKeyStillBlocksANewRequest() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        Connection legacy = new Connection();
+        legacy.setSenderId(alice.getId());
+        legacy.setReceiverId(bob.getId());
+        legacy.setStatus(ConnectionStatus.ACCEPTED);
+        legacy = connectionRepository.save(legacy);
+        // As left by the backfill for a duplicate pair
+        jdbcTemplate.update("UPDATE connections SET pair_key = NULL WHERE id = ?", legacy.getId());
+
+        assertThatThrownBy(() -> connectionService.sendConnectionRequest(bob.getId(), alice.getId(), null))
+                .hasMessage("Connection request already exists");
+        assertThatThrownBy(() -> connectionService.sendConnectionRequest(alice.getId(), bob.getId(), null))
+                .hasMessage("Connection request already exists");
+        assertThat(rowsBetween(alice, bob)).isEqualTo(1);
+    }
+
+    private int rowsBetween(User first, User second) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM connections WHERE (sender_id = ? AND receiver_id = ?) OR (sender_id = ? AND receiver_id = ?)",
+                Integer.class, first.getId(), second.getId(), second.getId(), first.getId());
+        return rows != null ? rows : 0;
+    }
+
+    private User createUser(String role) {
+        User user = new User();
+        String key = role + "-" + UUID.randomUUID();
+        user.setFirebaseUid("request-" + key);
+        user.setEmail(key + "@example.test");
+        user.setUsername(key);
+        user.setName(role);
+        return userRepository.save(user);
+    }
+}
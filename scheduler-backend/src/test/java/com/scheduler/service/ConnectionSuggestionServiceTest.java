@@ -0,0 +1,249 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.ConnectionSuggestionDTO;
+import com.scheduler.model.User;
+import com.scheduler.repository.ConnectionPair;
+import com.scheduler.repository.ConnectionRepository;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ConnectionSuggestionService over an in-memory ConnectionGraphIndex: ranking, cache eviction
+ * and its races, and the cache cap. The latency check for a user with thousands of connections
+ * is a benchmark, run with {@code -Dbenchmark=true}.
+ */
+class ConnectionSuggestionServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionSuggestionServiceTest.class);
+
+    private static final String USER_ID = "me";
+    private static final int FRIENDS = 3000;
+    private static final int FRIENDS_OF_FRIEND = 40;
+    private static final int POPULATION = 20000;
+
+    private ConnectionRepository connectionRepository;
+    private ConnectionGraphIndex connectionGraphIndex;
+    private ConnectionSuggestionService service;
+
+    @BeforeEach
+    void setUp() {
+        connectionRepository = mock(ConnectionRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().map(ConnectionSuggestionServiceTest::user).toList();
+        });
+        when(connectionRepository.findCounterpartIds(anyString())).thenReturn(List.of());
+
+        connectionGraphIndex = new ConnectionGraphIndex(connectionRepository);
+        service = new ConnectionSuggestionService(connectionGraphIndex, connectionRepository, userRepository);
+        ReflectionTestUtils.setField(service, "maxResults", 50);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 600L);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 10000);
+    }
+
+    @Test
+    void suggestionsAreRankedByMutualConnections() {
+        loadGraph(largeGraph());
+
+        List<ConnectionSuggestionDTO> suggestions = service.getSuggestions(USER_ID, 50);
+
+        assertThat(suggestions).hasSize(50);
+        assertThat(suggestions).extracting(ConnectionSuggestionDTO::getMutualCount)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+        for (ConnectionSuggestionDTO suggestion : suggestions) {
+            assertThat(service.countMutualConnections(USER_ID, suggestion.getUserId()))
+                    .isEqualTo(suggestion.getMutualCount());
+        }
+        // The heap keeps the best 50: nobody left out shares more friends than the last one kept
+        int weakestKept = suggestions.get(49).getMutualCount();
+        Set<String> kept = suggestions.stream().map(ConnectionSuggestionDTO::getUserId).collect(Collectors.toSet());
+        for (int i = 0; i < POPULATION; i++) {
+            String candidate = "user-" + i;
+            if (!kept.contains(candidate)) {
+                assertThat(service.countMutualConnections(USER_ID, candidate)).isLessThanOrEqualTo(weakestKept);
+            }
+        }
+    }
+
+    @Test
+    void tiesAreBrokenByUserId() {
+        loadGraph(List.of(pair("me", "friend-a"), pair("me", "friend-b"),
+                pair("friend-a", "carol"), pair("friend-a", "bob"), pair("friend-b", "bob"),
+                pair("friend-a", "dave"), pair("friend-b", "alice")));
+        ReflectionTestUtils.setField(service, "maxResults", 3);
+
+        assertThat(service.getSuggestions(USER_ID, 10))
+                .extracting(ConnectionSuggestionDTO::getUserId)
+                .containsExactly("bob", "alice", "carol");
+    }
+
+    @Test
+    void listComputedDuringAnEvictionIsServedButNotCached() {
+        loadGraph(List.of(pair("me", "friend"), pair("friend", "candidate")));
+        // A request between "me" and "candidate" commits while the first list is being computed
+        when(connectionRepository.findCounterpartIds(USER_ID))
+                .thenAnswer(invocation -> {
+                    service.onConnectionRequestChanged(new ConnectionRequestChangedEvent(USER_ID, "candidate"));
+                    return List.of();
+                })
+                .thenReturn(List.of("candidate"));
+
+        assertThat(service.getSuggestions(USER_ID, 10)).hasSize(1);
+        assertThat(service.getSuggestions(USER_ID, 10)).isEmpty();
+        assertThat(service.getSuggestions(USER_ID, 10)).isEmpty();
+        verify(connectionRepository, times(2)).findCounterpartIds(USER_ID);
+    }
+
+    @Test
+    void cacheStopsGrowingAtItsCap() {
+        loadGraph(List.of(pair("a", "hub"), pair("b", "hub"), pair("c", "hub")));
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 2);
+
+        for (int round = 0; round < 3; round++) {
+            for (String userId : List.of("a", "b", "c")) {
+                service.getSuggestions(userId, 10);
+            }
+        }
+
+        verify(connectionRepository, times(1)).findCounterpartIds("a");
+        verify(connectionRepository, times(1)).findCounterpartIds("b");
+        verify(connectionRepository, times(3)).findCounterpartIds("c");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void suggestionsForAUserWithThousandsOfConnectionsTakeMilliseconds() {
+        loadGraph(largeGraph());
+
+        long[] suggestionNanos = new long[30];
+        long[] mutualNanos = new long[30];
+        for (int round = 0; round < 50; round++) {
+            // Drop the cached list so every round recomputes
+            service.onConnectionRequestChanged(new ConnectionRequestChangedEvent(USER_ID, "nobody"));
+
+            long start = System.nanoTime();
+            List<ConnectionSuggestionDTO> suggestions = service.getSuggestions(USER_ID, 50);
+            long suggestionTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int mutual = service.countMutualConnections(USER_ID, suggestions.get(0).getUserId());
+            long mutualTime = System.nanoTime() - start;
+
+            assertThat(suggestions).hasSize(50);
+            assertThat(mutual).isEqualTo(suggestions.get(0).getMutualCount());
+            // First rounds warm up the JIT
+            if (round >= 20) {
+                suggestionNanos[round - 20] = suggestionTime;
+                mutualNanos[round - 20] = mutualTime;
+            }
+        }
+
+        long suggestionMs = TimeUnit.NANOSECONDS.toMillis(median(suggestionNanos));
+        long mutualMicros = TimeUnit.NANOSECONDS.toMicros(median(mutualNanos));
+        log.info("Median over {} friends: suggestions {} ms, mutual count {} us", FRIENDS, suggestionMs, mutualMicros);
+
+        // A query per friend, which this replaced, would take seconds
+        assertThat(suggestionMs).as("median suggestion time, ms").isLessThan(150);
+        assertThat(mutualMicros).as("median mutual count time, us").isLessThan(10_000);
+    }
+
+    @Test
+    void cachedSuggestionsAreDroppedWhenARequestChanges() {
+        loadGraph(List.of(pair("me", "friend"), pair("friend", "candidate")));
+        assertThat(service.getSuggestions(USER_ID, 10))
+                .extracting(ConnectionSuggestionDTO::getUserId)
+                .containsExactly("candidate");
+
+        // "candidate" now has a pending request with "me"; the cached list is still served until the event
+        when(connectionRepository.findCounterpartIds(USER_ID)).thenReturn(List.of("candidate"));
+        assertThat(service.getSuggestions(USER_ID, 10)).hasSize(1);
+
+        service.onConnectionRequestChanged(new ConnectionRequestChangedEvent("candidate", USER_ID));
+        assertThat(service.getSuggestions(USER_ID, 10)).isEmpty();
+    }
+
+    @Test
+    void newConnectionEvictsSuggestionsTwoHopsAway() {
+        loadGraph(List.of(pair("me", "friend"), pair("friend", "candidate")));
+        assertThat(service.getSuggestions("friend", 10)).isEmpty();
+
+        ConnectionChangedEvent connected = new ConnectionChangedEvent("me", "newcomer", true);
+        connectionGraphIndex.onConnectionChanged(connected);
+        service.onConnectionChanged(connected);
+
+        assertThat(service.getSuggestions("friend", 10))
+                .extracting(ConnectionSuggestionDTO::getUserId)
+                .containsExactly("newcomer");
+    }
+
+    // Every friend knows a random 40 of 20000 users, so candidates share a handful of friends
+    private static List<ConnectionPair> largeGraph() {
+        Random random = new Random(42);
+        List<ConnectionPair> pairs = new ArrayList<>();
+        for (int f = 0; f < FRIENDS; f++) {
+            String friend = "friend-" + f;
+            pairs.add(pair(USER_ID, friend));
+            for (int i = 0; i < FRIENDS_OF_FRIEND; i++) {
+                pairs.add(pair(friend, "user-" + random.nextInt(POPULATION)));
+            }
+        }
+        return pairs;
+    }
+
+    private void loadGraph(List<ConnectionPair> pairs) {
+        when(connectionRepository.findAcceptedPairs()).thenReturn(pairs);
+        connectionGraphIndex.load();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static ConnectionPair pair(String senderId, String receiverId) {
+        return new ConnectionPair() {
+            @Override
+            public String getSenderId() {
+                return senderId;
+            }
+
+            @Override
+            public String getReceiverId() {
+                return receiverId;
+            }
+        };
+    }
+
+    private static User user(String id) {
+        User user = new User();
+        user.setId(id);
+        user.setName(id);
+        user.setUsername(id);
+        return user;
+    }
+}
@@ -0,0 +1,87 @@
+package com.scheduler.service;
+
+import com.scheduler.model.EmailOutbox;
+import com.scheduler.model.EmailOutbox.EmailOutboxStatus;
+import com.scheduler.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EmailOutboxPurger against the test database with a small chunk size, so the chunk loop
+ * runs more than once. Mail goes to a closed port, so the dispatcher gives up on the first failure.
+ */
+@SpringBootTest(properties = {
+        "app.email.outbox.purge-chunk-size=2",
+        "app.email.outbox.max-attempts=1",
+        "spring.mail.port=9"
+})
+class EmailOutboxPurgerTest {
+
+    @Autowired
+    private EmailOutboxPurger purger;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void purgesFinishedRowsPastTheirRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expired.add(save(EmailOutboxStatus.SENT, now.minusDays(8 + i)));
+        }
+        expired.add(save(EmailOutboxStatus.DEAD, now.minusDays(31)));
+
+        String recentSent = save(EmailOutboxStatus.SENT, now.minusDays(1));
+        String recentDead = save(EmailOutboxStatus.DEAD, now.minusDays(10));
+        String pending = save(EmailOutboxStatus.PENDING, now.plusDays(1));
+
+        purger.purge();
+
+        assertThat(emailOutboxRepository.findAllById(expired)).isEmpty();
+        assertThat(emailOutboxRepository.findAllById(List.of(recentSent, recentDead, pending)))
+                .extracting(EmailOutbox::getId)
+                .containsExactlyInAnyOrder(recentSent, recentDead, pending);
+    }
+
+    @Test
+    void deadRowsAreKeptForTheirRetentionFromTheLastAttempt() throws Exception {
+        String id = save(EmailOutboxStatus.PENDING, LocalDateTime.now().minusMinutes(1));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.poll();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (emailOutboxRepository.findById(id).orElseThrow().getStatus() != EmailOutboxStatus.DEAD) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        // No retry backoff on a dead row: nextAttemptAt is when it was given up
+        EmailOutbox dead = emailOutboxRepository.findById(id).orElseThrow();
+        assertThat(dead.getNextAttemptAt()).isBetween(before, LocalDateTime.now());
+
+        purger.purge();
+        assertThat(emailOutboxRepository.existsById(id)).isTrue();
+    }
+
+    private String save(EmailOutboxStatus status, LocalDateTime lastAttempt) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient("purge@example.test");
+        email.setSubject("Purge " + status);
+        email.setHtmlBody("<p>body</p>");
+        email.setStatus(status);
+        email.setNextAttemptAt(lastAttempt);
+        return emailOutboxRepository.save(email).getId();
+    }
+}
@@ -0,0 +1,292 @@
+package com.scheduler.service;
+
+import com.scheduler.dto.BookingDTO;
+import com.scheduler.dto.ConnectionDTO;
+import com.scheduler.dto.MeetingRequestDTO;
+import com.scheduler.model.EmailOutbox;
+import com.scheduler.model.Event;
+import com.scheduler.model.MeetLinkStatus;
+import com.scheduler.model.User;
+import com.scheduler.repository.EmailOutboxRepository;
+import com.scheduler.repository.EventRepository;
+import com.scheduler.repository.UserRepository;
+import com.scheduler.support.LocalSmtpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness for the email pipeline: drives bookings, meeting-request approvals and
+ * connection events through the real services, outbox and dispatcher into LocalSmtpServer,
+ * and reports for each flow
+ * <ul>
+ *   <li>messages per second, from the first business call to the last message received</li>
+ *   <li>commit-to-delivery latency (outbox row written to SMTP acceptance), p50/p95/max</li>
+ *   <li>the deepest emailTaskExecutor queue and outbox backlog seen while it ran</li>
+ *   <li>drops: enqueued but never delivered, dead-lettered, or refused by the send executor</li>
+ * </ul>
+ * Sizes default to a quick run; raise them with {@code -Dloadtest.count=2000 -Dloadtest.threads=32}.
+ */
+@SpringBootTest
+class EmailPipelineLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailPipelineLoadTest.class);
+
+    private static final int COUNT = Integer.getInteger("loadtest.count", 50);
+    private static final int CLIENT_THREADS = Integer.getInteger("loadtest.threads", 8);
+    private static final long DELIVERY_TIMEOUT_SECONDS = Long.getLong("loadtest.timeout-seconds", 60);
+
+    private static final LocalSmtpServer SMTP_SERVER = startSmtpServer();
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", SMTP_SERVER::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtpServer() {
+        SMTP_SERVER.close();
+    }
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private MeetingRequestService meetingRequestService;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    @Qualifier("emailTaskExecutor")
+    private ThreadPoolTaskExecutor emailTaskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void bookings() throws Exception {
+        User host = createUser("host");
+        Event event = new Event();
+        event.setTitle("Intro call");
+        event.setDuration(30);
+        event.setUserId(host.getId());
+        event.setMeetLink(MeetLinkProvisioner.FALLBACK_MEET_LINK);
+        event.setMeetLinkStatus(MeetLinkStatus.FALLBACK);
+        Event savedEvent = eventRepository.save(event);
+        LocalDateTime firstSlot = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.HOURS);
+
+        FlowReport report = measure("bookings", i -> {
+            BookingDTO booking = new BookingDTO();
+            booking.setEventId(savedEvent.getId());
+            booking.setUserId(host.getId());
+            booking.setName("Attendee " + i);
+            booking.setEmail("attendee" + i + "@example.test");
+            // Conflict check treats touching slots as overlapping, so leave a gap between them
+            booking.setStartTime(firstSlot.plusMinutes(45L * i));
+            booking.setEndTime(firstSlot.plusMinutes(45L * i + 30));
+            booking.setGoogleEventId("");
+            bookingService.createBooking(booking);
+        });
+
+        assertDelivered(report);
+    }
+
+    @Test
+    void meetingRequestApprovals() throws Exception {
+        List<String> requestIds = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusMonths(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < COUNT; i++) {
+            MeetingRequestDTO request = new MeetingRequestDTO();
+            request.setRequesterId(createUser("requester").getId());
+            request.setReceiverId(createUser("receiver").getId());
+            request.setTitle("Catch-up " + i);
+            request.setStartTime(start);
+            request.setEndTime(start.plusMinutes(30));
+            requestIds.add(meetingRequestService.createMeetingRequest(request).getId());
+        }
+        awaitQuiet();
+
+        FlowReport report = measure("meeting request approvals",
+                i -> meetingRequestService.approveMeetingRequest(requestIds.get(i)));
+
+        assertDelivered(report);
+    }
+
+    @Test
+    void connectionEvents() throws Exception {
+        List<User[]> pairs = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            pairs.add(new User[] {createUser("sender"), createUser("receiver")});
+        }
+
+        FlowReport report = measure("connection request + accept", i -> {
+            User[] pair = pairs.get(i);
+            ConnectionDTO sent = connectionService.sendConnectionRequest(pair[0].getId(), pair[1].getId(), "Hi");
+            connectionService.acceptConnection(sent.getId());
+        });
+
+        assertDelivered(report);
+    }
+
+    private FlowReport measure(String flow, IntConsumer call) throws Exception {
+        long rowsBefore = emailOutboxRepository.count();
+        int deliveredBefore = SMTP_SERVER.getMessageCount();
+        long deadBefore = emailOutboxRepository.countByStatus(EmailOutbox.EmailOutboxStatus.DEAD);
+        double rejectedBefore = meterRegistry.counter("email.outbox.executor.rejected").count();
+        LocalDateTime flowStart = LocalDateTime.now();
+
+        AtomicInteger maxQueueDepth = new AtomicInteger();
+        AtomicLong maxBacklog = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            maxQueueDepth.accumulateAndGet(emailTaskExecutor.getQueueSize(), Math::max);
+            maxBacklog.accumulateAndGet(
+                    emailOutboxRepository.countByStatus(EmailOutbox.EmailOutboxStatus.PENDING), Math::max);
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        long startNanos = System.nanoTime();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        try {
+            CompletableFuture<?>[] calls = new CompletableFuture<?>[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                int index = i;
+                calls[i] = CompletableFuture.runAsync(() -> call.accept(index), clients);
+            }
+            CompletableFuture.allOf(calls).join();
+        } finally {
+            clients.shutdown();
+        }
+
+        long enqueued = emailOutboxRepository.count() - rowsBefore;
+        SMTP_SERVER.awaitMessages(deliveredBefore + (int) enqueued, DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        sampler.shutdown();
+        sampler.awaitTermination(1, TimeUnit.SECONDS);
+
+        List<LocalSmtpServer.ReceivedMessage> received = SMTP_SERVER.getMessages();
+        List<LocalSmtpServer.ReceivedMessage> delivered = received.subList(deliveredBefore, received.size());
+        long lastDeliveryNanos = delivered.stream().mapToLong(LocalSmtpServer.ReceivedMessage::receivedAtNanos)
+                .max().orElse(System.nanoTime());
+
+        List<Long> latenciesMs = emailOutboxRepository.findAll().stream()
+                .filter(row -> row.getSentAt() != null && !row.getCreatedAt().isBefore(flowStart))
+                .map(row -> Duration.between(row.getCreatedAt(), row.getSentAt()).toMillis())
+                .sorted()
+                .toList();
+
+        FlowReport report = new FlowReport(
+                flow,
+                enqueued,
+                delivered.size(),
+                delivered.size() * 1e9 / Math.max(1, lastDeliveryNanos - startNanos),
+                percentile(latenciesMs, 50),
+                percentile(latenciesMs, 95),
+                latenciesMs.isEmpty() ? 0 : latenciesMs.get(latenciesMs.size() - 1),
+                maxQueueDepth.get(),
+                maxBacklog.get(),
+                Math.max(0, enqueued - delivered.size()),
+                emailOutboxRepository.countByStatus(EmailOutbox.EmailOutboxStatus.DEAD) - deadBefore,
+                (long) (meterRegistry.counter("email.outbox.executor.rejected").count() - rejectedBefore));
+        log.info("{}", report);
+        return report;
+    }
+
+    private void assertDelivered(FlowReport report) {
+        assertThat(report.enqueued()).as("emails queued by " + report.flow()).isGreaterThanOrEqualTo(COUNT);
+        assertThat(report.undelivered()).as("undelivered").isZero();
+        assertThat(report.dead()).as("dead-lettered").isZero();
+    }
+
+    // Lets the emails from a flow's setup drain so they don't count towards the measured run
+    private void awaitQuiet() throws InterruptedException {
+        long rows = emailOutboxRepository.count();
+        long alreadySent = rows - emailOutboxRepository.countByStatus(EmailOutbox.EmailOutboxStatus.PENDING)
+                - emailOutboxRepository.countByStatus(EmailOutbox.EmailOutboxStatus.SENDING);
+        int pendingDelivery = (int) (rows - alreadySent);
+        SMTP_SERVER.awaitMessages(SMTP_SERVER.getMessageCount() + pendingDelivery,
+                DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private User createUser(String role) {
+        int n = USER_SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setFirebaseUid("load-" + role + "-" + n);
+        user.setEmail(role + n + "@example.test");
+        user.setUsername(role + n);
+        user.setName(Character.toUpperCase(role.charAt(0)) + role.substring(1) + " " + n);
+        return userRepository.save(user);
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static LocalSmtpServer startSmtpServer() {
+        try {
+            return new LocalSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntConsumer {
+        void accept(int index);
+    }
+
+    private record FlowReport(String flow, long enqueued, int delivered, double messagesPerSecond,
+                              long p50LatencyMs, long p95LatencyMs, long maxLatencyMs,
+                              int maxExecutorQueueDepth, long maxOutboxBacklog,
+                              long undelivered, long dead, long executorRejections) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d emails queued, %d delivered, %.1f msg/s, commit-to-delivery p50 %d ms, "
+                            + "p95 %d ms, max %d ms, max executor queue %d, max outbox backlog %d, "
+                            + "dropped %d (undelivered %d, dead %d, executor rejections %d)",
+                    flow, enqueued, delivered, messagesPerSecond, p50LatencyMs, p95LatencyMs, maxLatencyMs,
+                    maxExecutorQueueDepth, maxOutboxBacklog, undelivered + dead + executorRejections,
+                    undelivered, dead, executorRejections);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.scheduler.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Render throughput of the booking templates, the bulk of a reminder campaign, with the
+ * template cache on (as configured) and off (every render re-parses). The timed comparison
+ * runs with {@code -Dbenchmark=true}; raise it with {@code -Drender-benchmark.renders=100000}.
+ */
+class EmailTemplateRendererBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateRendererBenchmarkTest.class);
+
+    private static final int RENDERS = Integer.getInteger("render-benchmark.renders", 5000);
+    private static final List<String> TEMPLATES = List.of(
+            "booking-confirmation", "booking-notification", "booking-rescheduled");
+
+    @Test
+    void cachedAndReparsedTemplatesRenderTheSame() {
+        EmailTemplateRenderer cached = renderer(true);
+        EmailTemplateRenderer uncached = renderer(false);
+        cached.warmUp();
+
+        for (String template : TEMPLATES) {
+            String rendered = cached.render(template, context(42));
+            assertThat(rendered).contains("Attendee 42", "Intro call 42");
+            // Second render comes from the cache and must not carry over the first one's variables
+            assertThat(cached.render(template, context(7))).contains("Attendee 7").doesNotContain("Attendee 42");
+            assertThat(uncached.render(template, context(42))).isEqualTo(rendered);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void cachedTemplatesOnlyInterpolateVariables() {
+        EmailTemplateRenderer cached = renderer(true);
+        EmailTemplateRenderer uncached = renderer(false);
+        cached.warmUp();
+
+        double cachedRate = rendersPerSecond(cached);
+        double uncachedRate = rendersPerSecond(uncached);
+        log.info("Template renders/sec over {} renders: cached {}, re-parsed {} ({}x)",
+                RENDERS, Math.round(cachedRate), Math.round(uncachedRate),
+                String.format("%.1f", cachedRate / uncachedRate));
+
+        assertThat(cachedRate).as("cached renders/sec vs re-parsing").isGreaterThan(uncachedRate * 1.5);
+    }
+
+    private static double rendersPerSecond(EmailTemplateRenderer renderer) {
+        // Warm up the JIT on the same mix before timing
+        render(renderer, RENDERS / 5);
+        long start = System.nanoTime();
+        long chars = render(renderer, RENDERS);
+        long elapsed = System.nanoTime() - start;
+        assertThat(chars).isPositive();
+        return RENDERS * 1_000_000_000.0 / elapsed;
+    }
+
+    private static long render(EmailTemplateRenderer renderer, int count) {
+        long chars = 0;
+        for (int i = 0; i < count; i++) {
+            chars += renderer.render(TEMPLATES.get(i % TEMPLATES.size()), context(i)).length();
+        }
+        return chars;
+    }
+
+    // What EmailServiceImpl sets for a booking, varying per attendee
+    private static Context context(int i) {
+        Context context = new Context();
+        context.setVariable("attendeeName", "Attendee " + i);
+        context.setVariable("recipientName", "Attendee " + i);
+        context.setVariable("otherPartyName", "Host");
+        context.setVariable("creatorName", "Host");
+        context.setVariable("creatorEmail", "host@example.test");
+        context.setVariable("eventTitle", "Intro call " + i);
+        context.setVariable("eventDescription", "A short introduction");
+        context.setVariable("date", "Monday, January 7, 2030");
+        context.setVariable("startTime", "09:00 AM");
+        context.setVariable("endTime", "09:30 AM");
+        context.setVariable("previousDate", "Friday, January 4, 2030");
+        context.setVariable("previousStartTime", "10:00 AM");
+        context.setVariable("previousEndTime", "10:30 AM");
+        context.setVariable("meetLink", "https://meet.google.com/abc-defg-hij");
+        context.setVariable("additionalInfo", "Looking forward to it");
+        return context;
+    }
+
+    // Same resolution as Boot's Thymeleaf auto-configuration
+    private static EmailTemplateRenderer renderer(boolean cacheable) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cacheable);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return new EmailTemplateRenderer(engine, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,201 @@
+package com.scheduler.service;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpTransport;
+import com.scheduler.support.GoogleTestClients;
+import com.scheduler.support.StubGoogleServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.SocketTimeoutException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives GoogleApiGuard through real free/busy calls against StubGoogleServer, with injected
+ * errors and latency.
+ */
+class GoogleApiGuardTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    private StubGoogleServer googleServer;
+    private SimpleMeterRegistry meterRegistry;
+    private HttpTransport transport;
+    private ThreadPoolTaskExecutor googleCallExecutor;
+    private GoogleApiGuard guard;
+    private GoogleCalendarService calendarService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        googleServer = new StubGoogleServer();
+        meterRegistry = new SimpleMeterRegistry();
+        transport = GoogleTestClients.transport(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleCallExecutor.shutdown();
+        googleServer.close();
+    }
+
+    @Test
+    void opensOnFailureRateAndFailsFast() throws Exception {
+        start(4, Map.of());
+        googleServer.setFailureStatus(503);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleJsonResponseException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.OPEN);
+
+        assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleApiUnavailableException.class);
+        assertThat(googleServer.getRequestCount("freebusy")).isEqualTo(4);
+        assertThat(transitions("CLOSED", "OPEN")).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() throws Exception {
+        start(4, Map.of());
+        googleServer.setFailureStatus(404);
+
+        for (int i = 0; i < 8; i++) {
+            assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleJsonResponseException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulTrialCalls() throws Exception {
+        start(4, Map.of("openDurationMs", 200L));
+        tripOpen();
+
+        googleServer.setFailureStatus(0);
+        Thread.sleep(250);
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.HALF_OPEN);
+
+        for (int i = 0; i < 3; i++) {
+            queryBusy();
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.CLOSED);
+        assertThat(transitions("OPEN", "HALF_OPEN")).isEqualTo(1);
+        assertThat(transitions("HALF_OPEN", "CLOSED")).isEqualTo(1);
+    }
+
+    @Test
+    void failedTrialCallReopens() throws Exception {
+        start(4, Map.of("openDurationMs", 200L));
+        tripOpen();
+
+        Thread.sleep(250);
+        assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleJsonResponseException.class);
+
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.OPEN);
+        assertThat(transitions("HALF_OPEN", "OPEN")).isEqualTo(1);
+        assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleApiUnavailableException.class);
+    }
+
+    @Test
+    void slowResponsesTimeOutAndCountAsFailures() throws Exception {
+        start(4, Map.of("callTimeoutMs", 100L));
+        googleServer.setLatencyMs(300);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleApiTimeoutException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.OPEN);
+    }
+
+    @Test
+    void timeoutStartsWhenTheCallStartsRunning() throws Exception {
+        // One thread: the second call queues behind the first for ~300ms, then runs for ~300ms
+        start(1, Map.of("callTimeoutMs", 500L));
+        googleServer.setLatencyMs(300);
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(this::queryBusyUnchecked);
+        CompletableFuture<?> second = CompletableFuture.runAsync(this::queryBusyUnchecked);
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(googleServer.getRequestCount("freebusy")).isEqualTo(2);
+    }
+
+    @Test
+    void readTimeoutAppliesPerRequestAndFreesTheThread() throws Exception {
+        start(1, Map.of("callTimeoutMs", 5000L));
+        ReflectionTestUtils.setField(calendarService, "readTimeoutMs", 200);
+        googleServer.setLatencyMs(1000);
+
+        // The socket gives up before the stubbed response arrives, long before the guard would
+        assertThatThrownBy(this::queryBusy).isInstanceOf(SocketTimeoutException.class);
+
+        googleServer.setLatencyMs(0);
+        queryBusy();
+    }
+
+    @Test
+    void queueWaitLimitRejectsWithoutCountingAgainstGoogle() throws Exception {
+        start(1, Map.of("maxQueueWaitMs", 100L));
+        googleServer.setLatencyMs(400);
+
+        CompletableFuture<?> running = CompletableFuture.runAsync(this::queryBusyUnchecked);
+        Thread.sleep(50);
+        assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleApiUnavailableException.class)
+                .hasMessageContaining("queue wait");
+        running.get(5, TimeUnit.SECONDS);
+
+        assertThat(googleServer.getRequestCount("freebusy")).isEqualTo(1);
+        long recordedCalls = meterRegistry.find("google.guard.calls").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+        assertThat(recordedCalls).isEqualTo(1);
+    }
+
+    private void start(int threads, Map<String, Object> overrides) {
+        googleCallExecutor = new ThreadPoolTaskExecutor();
+        googleCallExecutor.setCorePoolSize(threads);
+        googleCallExecutor.setMaxPoolSize(threads);
+        googleCallExecutor.setQueueCapacity(10);
+        googleCallExecutor.setThreadNamePrefix("google-call-");
+        googleCallExecutor.initialize();
+
+        Map<String, Object> settings = new HashMap<>(Map.of("windowSize", 4, "minimumCalls", 4));
+        settings.putAll(overrides);
+        guard = GoogleTestClients.guard(googleCallExecutor, meterRegistry, settings);
+        calendarService = GoogleTestClients.calendarService(transport, guard, googleServer.getRootUrl());
+    }
+
+    private void tripOpen() {
+        googleServer.setFailureStatus(503);
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(this::queryBusy).isInstanceOf(GoogleJsonResponseException.class);
+        }
+        assertThat(guard.getState()).isEqualTo(GoogleApiGuard.State.OPEN);
+    }
+
+    private void queryBusy() throws Exception {
+        calendarService.queryBusy("token", FROM, FROM.plusDays(1));
+    }
+
+    private void queryBusyUnchecked() {
+        try {
+            queryBusy();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.counter("google.guard.transitions", "from", from, "to", to).count();
+    }
+}
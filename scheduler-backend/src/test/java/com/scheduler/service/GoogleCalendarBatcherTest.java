@@ -0,0 +1,143 @@
+package com.scheduler.service;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.calendar.model.Event;
+import com.scheduler.support.GoogleTestClients;
+import com.scheduler.support.StubGoogleServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs GoogleCalendarBatcher against StubGoogleServer's multipart batch endpoint.
+ */
+class GoogleCalendarBatcherTest {
+
+    private StubGoogleServer googleServer;
+    private ThreadPoolTaskExecutor googleCallExecutor;
+    private ThreadPoolTaskExecutor googleBatchExecutor;
+    private GoogleCalendarBatcher batcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        googleServer = new StubGoogleServer();
+        googleCallExecutor = executor("google-call-");
+        googleBatchExecutor = executor("google-batch-");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GoogleApiGuard guard = GoogleTestClients.guard(googleCallExecutor, meterRegistry, Map.of());
+        GoogleCalendarService calendarService = GoogleTestClients.calendarService(
+                GoogleTestClients.transport(meterRegistry), guard, googleServer.getRootUrl());
+
+        batcher = new GoogleCalendarBatcher(calendarService, googleBatchExecutor);
+        ReflectionTestUtils.setField(batcher, "windowMs", 200L);
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+        googleBatchExecutor.shutdown();
+        googleCallExecutor.shutdown();
+        googleServer.close();
+    }
+
+    @Test
+    void operationsWithinTheWindowShareOneBatch() throws Exception {
+        List<CompletableFuture<Event>> inserts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inserts.add(batcher.insertEvent("token-a", new Event().setSummary("Meeting " + i)));
+        }
+        CompletableFuture<Void> delete = batcher.deleteEvent("token-a", "old-event");
+
+        for (int i = 0; i < inserts.size(); i++) {
+            Event created = inserts.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(created.getSummary()).isEqualTo("Meeting " + i);
+            assertThat(created.getId()).isNotBlank();
+            assertThat(created.getConferenceData().getEntryPoints().get(0).getUri()).startsWith("https://meet.google.com/");
+        }
+        delete.get(5, TimeUnit.SECONDS);
+
+        assertThat(googleServer.getBatchSizes()).containsExactly(11);
+        assertThat(googleServer.getRequestCount("events")).isZero();
+    }
+
+    @Test
+    void failedPartsFailOnlyTheirOwnCaller() throws Exception {
+        googleServer.failSummary("Forbidden", 403);
+
+        CompletableFuture<Event> before = batcher.insertEvent("token-a", new Event().setSummary("Allowed 1"));
+        CompletableFuture<Event> failing = batcher.insertEvent("token-a", new Event().setSummary("Forbidden"));
+        CompletableFuture<Event> after = batcher.insertEvent("token-a", new Event().setSummary("Allowed 2"));
+
+        assertThat(before.get(5, TimeUnit.SECONDS).getSummary()).isEqualTo("Allowed 1");
+        assertThat(after.get(5, TimeUnit.SECONDS).getSummary()).isEqualTo("Allowed 2");
+        assertThatThrownBy(() -> failing.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(GoogleJsonResponseException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(403);
+                    assertThat(e.getDetails().getMessage()).isEqualTo("Injected failure");
+                });
+        assertThat(googleServer.getBatchSizes()).containsExactly(3);
+    }
+
+    @Test
+    void failedBatchRequestFailsEveryCaller() {
+        googleServer.setFailureStatus(500);
+
+        CompletableFuture<Event> first = batcher.insertEvent("token-a", new Event().setSummary("One"));
+        CompletableFuture<Event> second = batcher.insertEvent("token-a", new Event().setSummary("Two"));
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(googleServer.getRequestCount("batch")).isEqualTo(1);
+    }
+
+    @Test
+    void tokensAreBatchedSeparately() throws Exception {
+        CompletableFuture<Event> a = batcher.insertEvent("token-a", new Event().setSummary("Host A"));
+        CompletableFuture<Event> b = batcher.insertEvent("token-b", new Event().setSummary("Host B"));
+
+        CompletableFuture.allOf(a, b).get(5, TimeUnit.SECONDS);
+
+        assertThat(googleServer.getBatchSizes()).containsExactly(1, 1);
+        assertThat(googleServer.getAuthorizations()).containsExactlyInAnyOrder("Bearer token-a", "Bearer token-b");
+    }
+
+    @Test
+    void fullGroupIsSentWithoutWaitingForTheWindow() throws Exception {
+        ReflectionTestUtils.setField(batcher, "windowMs", 60000L);
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 5);
+
+        List<CompletableFuture<Event>> inserts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inserts.add(batcher.insertEvent("token-a", new Event().setSummary("Meeting " + i)));
+        }
+
+        CompletableFuture.allOf(inserts.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(googleServer.getBatchSizes()).containsExactly(5, 5);
+    }
+
+    private static ThreadPoolTaskExecutor executor(String prefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setThreadNamePrefix(prefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
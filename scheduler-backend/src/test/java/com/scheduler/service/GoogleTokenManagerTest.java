@@ -0,0 +1,194 @@
+package com.scheduler.service;
+
+import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.scheduler.repository.GoogleCredentials;
+import com.scheduler.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * GoogleTokenManager with an expired stored token: concurrent callers share one refresh, and a
+ * failed refresh is not retried until its backoff passes (or, for invalid_grant, until the
+ * refresh token changes).
+ */
+class GoogleTokenManagerTest {
+
+    private static final String USER_ID = "host";
+
+    private final AtomicReference<GoogleCredentials> stored = new AtomicReference<>();
+    private UserRepository userRepository;
+    private GoogleCalendarService googleCalendarService;
+    private GoogleTokenManager tokenManager;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        googleCalendarService = mock(GoogleCalendarService.class);
+        when(userRepository.findGoogleCredentialsById(USER_ID)).thenAnswer(invocation -> Optional.of(stored.get()));
+        storeCredentials("stale", "refresh-1", LocalDateTime.now().minusMinutes(1));
+        // Like the real column update: later reads see the refreshed token
+        when(userRepository.updateGoogleAccessToken(eq(USER_ID), anyString(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    storeCredentials(invocation.getArgument(1), "refresh-1", invocation.getArgument(2));
+                    return 1;
+                });
+
+        tokenManager = new GoogleTokenManager(userRepository, googleCalendarService);
+        ReflectionTestUtils.setField(tokenManager, "refreshSkewSeconds", 300L);
+        ReflectionTestUtils.setField(tokenManager, "refreshBackoffMs", 60_000L);
+        ReflectionTestUtils.setField(tokenManager, "refreshBackoffMaxMs", 600_000L);
+    }
+
+    @Test
+    void concurrentCallersShareOneRefresh() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        when(googleCalendarService.refreshAccessToken("refresh-1")).thenAnswer(invocation -> {
+            refreshes.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return tokenResponse("fresh");
+        });
+
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            CompletableFuture<String> caller = new CompletableFuture<>();
+            Thread.ofPlatform().start(() -> caller.complete(tokenManager.getAccessToken(USER_ID)));
+            callers.add(caller);
+        }
+        awaitRefreshes(refreshes, 1);
+        // Give the other callers time to pile up behind the in-flight refresh
+        Thread.sleep(100);
+        release.countDown();
+
+        for (CompletableFuture<String> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isEqualTo("fresh");
+        }
+        assertThat(refreshes.get()).isEqualTo(1);
+        verify(userRepository).updateGoogleAccessToken(eq(USER_ID), eq("fresh"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void failedRefreshIsNotRetriedUntilTheBackoffPasses() throws Exception {
+        ReflectionTestUtils.setField(tokenManager, "refreshBackoffMs", 300L);
+        when(googleCalendarService.refreshAccessToken("refresh-1")).thenThrow(new IOException("connection reset"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(tokenManager.getAccessToken(USER_ID)).isEqualTo("stale");
+        }
+        verify(googleCalendarService, times(1)).refreshAccessToken(anyString());
+
+        Thread.sleep(400);
+        for (int i = 0; i < 5; i++) {
+            assertThat(tokenManager.getAccessToken(USER_ID)).isEqualTo("stale");
+        }
+        verify(googleCalendarService, times(2)).refreshAccessToken(anyString());
+    }
+
+    @Test
+    void successfulRefreshClearsTheBackoff() throws Exception {
+        ReflectionTestUtils.setField(tokenManager, "refreshBackoffMs", 100L);
+        when(googleCalendarService.refreshAccessToken("refresh-1"))
+                .thenThrow(new IOException("connection reset"))
+                .thenReturn(tokenResponse("fresh"), tokenResponse("fresher"));
+
+        tokenManager.getAccessToken(USER_ID);
+        Thread.sleep(150);
+        assertThat(tokenManager.getAccessToken(USER_ID)).isEqualTo("fresh");
+
+        // Once that token expires, the next refresh goes out straight away
+        storeCredentials("fresh", "refresh-1", LocalDateTime.now().minusMinutes(1));
+        assertThat(tokenManager.getAccessToken(USER_ID)).isEqualTo("fresher");
+        verify(googleCalendarService, times(3)).refreshAccessToken(anyString());
+    }
+
+    @Test
+    void invalidGrantStopsRefreshingUntilANewRefreshTokenIsStored() throws Exception {
+        ReflectionTestUtils.setField(tokenManager, "refreshBackoffMs", 1L);
+        when(googleCalendarService.refreshAccessToken("refresh-1")).thenThrow(invalidGrant());
+        when(googleCalendarService.refreshAccessToken("refresh-2")).thenReturn(tokenResponse("fresh"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(tokenManager.getAccessToken(USER_ID)).isEqualTo("stale");
+            Thread.sleep(5);
+        }
+        verify(googleCalendarService, times(1)).refreshAccessToken("refresh-1");
+
+        storeCredentials("stale", "refresh-2", LocalDateTime.now().minusMinutes(1));
+        assertThat(tokenManager.getAccessToken(USER_ID)).isEqualTo("fresh");
+    }
+
+    private void storeCredentials(String accessToken, String refreshToken, LocalDateTime expiresAt) {
+        stored.set(new GoogleCredentials() {
+            @Override
+            public String getAccessToken() {
+                return accessToken;
+            }
+
+            @Override
+            public String getRefreshToken() {
+                return refreshToken;
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return expiresAt;
+            }
+        });
+    }
+
+    private static GoogleTokenResponse tokenResponse(String accessToken) {
+        GoogleTokenResponse response = new GoogleTokenResponse();
+        response.setAccessToken(accessToken);
+        response.setExpiresInSeconds(3600L);
+        return response;
+    }
+
+    // What Google's token endpoint returns for a revoked or expired refresh token
+    private static TokenResponseException invalidGrant() throws IOException {
+        MockHttpTransport transport = new MockHttpTransport.Builder()
+                .setLowLevelHttpResponse(new MockLowLevelHttpResponse()
+                        .setStatusCode(400)
+                        .setContentType("application/json; charset=UTF-8")
+                        .setContent("{\"error\":\"invalid_grant\",\"error_description\":\"Token has been expired or revoked.\"}"))
+                .build();
+        HttpRequest request = transport.createRequestFactory()
+                .buildPostRequest(new GenericUrl("https://oauth2.googleapis.com/token"), null)
+                .setThrowExceptionOnExecuteError(false);
+        return TokenResponseException.from(GsonFactory.getDefaultInstance(), request.execute());
+    }
+
+    private static void awaitRefreshes(AtomicInteger refreshes, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (refreshes.get() < count) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.scheduler.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RFC 5545 output of IcsWriter: line folding by octets, TEXT escaping, CN quoting, UTC times and
+ * the METHOD/STATUS/SEQUENCE lines that update or cancel an entry. Run the write benchmark with
+ * {@code -Dbenchmark=true}.
+ */
+class IcsWriterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IcsWriterTest.class);
+
+    private static final int WRITES = Integer.getInteger("ics-benchmark.writes", 200000);
+
+    private final IcsWriter writer = new IcsWriter();
+    private TimeZone defaultTimeZone;
+
+    @BeforeEach
+    void setUp() {
+        // Bookings are stored in the server's zone; pin one with DST to check the UTC conversion
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    void linesEndWithCrlfAndStayWithin75Octets() {
+        IcsWriter.Invite invite = invite();
+        invite.setDescription("x".repeat(400));
+
+        String ics = writer.write(invite);
+
+        assertThat(ics).endsWith("END:VCALENDAR\r\n");
+        assertThat(ics.replace("\r\n", "")).doesNotContain("\r", "\n");
+        for (String line : physicalLines(ics)) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).as(line).isLessThanOrEqualTo(75);
+        }
+        assertThat(unfold(ics)).contains("DESCRIPTION:" + "x".repeat(400) + "\r\n");
+    }
+
+    @Test
+    void foldingCountsOctetsAndNeverSplitsACharacter() {
+        IcsWriter.Invite invite = invite();
+        // 2-, 3- and 4-octet characters (the last a surrogate pair in Java)
+        String summary = "é".repeat(40) + "会議".repeat(20) + "📅".repeat(20);
+        invite.setSummary(summary);
+
+        String ics = writer.write(invite);
+
+        List<String> summaryLines = physicalLines(ics).stream()
+                .dropWhile(line -> !line.startsWith("SUMMARY:"))
+                .takeWhile(line -> line.startsWith("SUMMARY:") || line.startsWith(" "))
+                .toList();
+        // "SUMMARY:" is 8 octets and each é is 2: 33 fit, a 34th would make 76
+        assertThat(summaryLines.get(0)).isEqualTo("SUMMARY:" + "é".repeat(33));
+        for (String line : summaryLines) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+            assertThat(Character.isLowSurrogate(line.charAt(line.startsWith(" ") ? 1 : 0))).isFalse();
+            assertThat(Character.isHighSurrogate(line.charAt(line.length() - 1))).isFalse();
+            // A split sequence would not survive the round trip
+            assertThat(new String(line.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8)).isEqualTo(line);
+        }
+        assertThat(unfold(ics)).contains("SUMMARY:" + summary + "\r\n");
+    }
+
+    @Test
+    void textValuesAreEscaped() {
+        IcsWriter.Invite invite = invite();
+        invite.setSummary("Q1 review; budget, plan");
+        invite.setDescription("Agenda:\r\n1. C:\\reports\n2. Next steps");
+
+        String ics = unfold(writer.write(invite));
+
+        assertThat(ics).contains("SUMMARY:Q1 review\\; budget\\, plan\r\n");
+        assertThat(ics).contains("DESCRIPTION:Agenda:\\n1. C:\\\\reports\\n2. Next steps\r\n");
+    }
+
+    @Test
+    void commonNamesAreQuotedWhenTheyContainSeparators() {
+        IcsWriter.Invite invite = invite();
+        invite.setOrganizer(new IcsWriter.Attendee("Doe, Jane", "jane@example.test"));
+        invite.setAttendees(List.of(
+                new IcsWriter.Attendee("Sam \"The Closer\" Lee", "sam@example.test"),
+                new IcsWriter.Attendee("Ops: on-call\nteam", "ops@example.test"),
+                new IcsWriter.Attendee(null, "anon@example.test")));
+
+        String ics = unfold(writer.write(invite));
+
+        assertThat(ics).contains("ORGANIZER;CN=\"Doe, Jane\":mailto:jane@example.test\r\n");
+        // Quotes cannot be escaped inside a parameter value, so they are dropped
+        assertThat(ics).contains("ATTENDEE;CN=Sam The Closer Lee;ROLE=REQ-PARTICIPANT;RSVP=TRUE:mailto:sam@example.test\r\n");
+        assertThat(ics).contains("ATTENDEE;CN=\"Ops: on-call team\";ROLE=REQ-PARTICIPANT;RSVP=TRUE:mailto:ops@example.test\r\n");
+        assertThat(ics).contains("ATTENDEE;CN=;ROLE=REQ-PARTICIPANT;RSVP=TRUE:mailto:anon@example.test\r\n");
+    }
+
+    @Test
+    void timesAreWrittenInUtc() {
+        IcsWriter.Invite winter = invite();
+        winter.setStartTime(LocalDateTime.of(2030, 1, 7, 9, 0));
+        winter.setEndTime(LocalDateTime.of(2030, 1, 7, 9, 30));
+        IcsWriter.Invite summer = invite();
+        summer.setStartTime(LocalDateTime.of(2030, 7, 8, 9, 0));
+        summer.setEndTime(LocalDateTime.of(2030, 7, 8, 23, 30));
+
+        assertThat(writer.write(winter)).contains("DTSTART:20300107T140000Z\r\n", "DTEND:20300107T143000Z\r\n");
+        // EDT is UTC-4, and the end crosses midnight UTC
+        assertThat(writer.write(summer)).contains("DTSTART:20300708T130000Z\r\n", "DTEND:20300709T033000Z\r\n");
+        assertThat(writer.write(winter)).containsPattern("DTSTAMP:\\d{8}T\\d{6}Z\r\n");
+    }
+
+    @Test
+    void updatesKeepTheUidAndCarryTheSequence() {
+        IcsWriter.Invite original = invite();
+        IcsWriter.Invite rescheduled = invite();
+        rescheduled.setSequence(1);
+        rescheduled.setStartTime(original.getStartTime().plusDays(1));
+        rescheduled.setEndTime(original.getEndTime().plusDays(1));
+
+        String first = writer.write(original);
+        String second = writer.write(rescheduled);
+
+        assertThat(first).contains("METHOD:REQUEST\r\n", "UID:booking-1@scheduler.com\r\n",
+                "STATUS:CONFIRMED\r\n", "SEQUENCE:0\r\n");
+        assertThat(second).contains("METHOD:REQUEST\r\n", "UID:booking-1@scheduler.com\r\n",
+                "STATUS:CONFIRMED\r\n", "SEQUENCE:1\r\n");
+    }
+
+    @Test
+    void cancellationUsesMethodCancel() {
+        IcsWriter.Invite cancelled = invite();
+        cancelled.setMethod(IcsWriter.Method.CANCEL);
+        cancelled.setSequence(2);
+
+        String ics = writer.write(cancelled);
+
+        assertThat(ics).contains("METHOD:CANCEL\r\n", "UID:booking-1@scheduler.com\r\n",
+                "STATUS:CANCELLED\r\n", "SEQUENCE:2\r\n");
+        assertThat(ics).doesNotContain("STATUS:CONFIRMED");
+    }
+
+    @Test
+    void writingIntoABufferMatchesWritingAString() {
+        StringBuilder out = new StringBuilder("prefix");
+        writer.write(invite(), out);
+
+        assertThat(out.substring("prefix".length()).replaceAll("DTSTAMP:\\S+", ""))
+                .isEqualTo(writer.write(invite()).replaceAll("DTSTAMP:\\S+", ""));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void writeThroughput() {
+        IcsWriter.Invite invite = invite();
+        invite.setDescription("Agenda, notes; and a long line with ünïcödé " + "text ".repeat(40));
+        StringBuilder out = new StringBuilder(4096);
+
+        // Warm up the JIT on the same input before timing
+        long chars = write(invite, out, WRITES / 5);
+        long start = System.nanoTime();
+        chars += write(invite, out, WRITES);
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(chars).isPositive();
+        log.info("IcsWriter: {} invites/sec over {} writes ({} ns each)",
+                Math.round(WRITES * 1_000_000_000.0 / elapsed), WRITES, elapsed / WRITES);
+    }
+
+    private long write(IcsWriter.Invite invite, StringBuilder out, int count) {
+        long chars = 0;
+        for (int i = 0; i < count; i++) {
+            out.setLength(0);
+            writer.write(invite, out);
+            chars += out.length();
+        }
+        return chars;
+    }
+
+    // What EmailServiceImpl builds for a booking
+    private static IcsWriter.Invite invite() {
+        IcsWriter.Invite invite = new IcsWriter.Invite();
+        invite.setUid("booking-1@scheduler.com");
+        invite.setStartTime(LocalDateTime.of(2030, 1, 7, 9, 0));
+        invite.setEndTime(LocalDateTime.of(2030, 1, 7, 9, 30));
+        invite.setSummary("Intro call");
+        invite.setDescription("Meeting Link: https://meet.google.com/abc-defg-hij");
+        invite.setLocation("https://meet.google.com/abc-defg-hij");
+        invite.setOrganizer(new IcsWriter.Attendee("Host", "host@example.test"));
+        invite.getAttendees().add(new IcsWriter.Attendee("Attendee", "attendee@example.test"));
+        return invite;
+    }
+
+    private static List<String> physicalLines(String ics) {
+        return Arrays.asList(ics.split("\r\n"));
+    }
+
+    // RFC 5545 3.1: a CRLF followed by a single space is removed when reading
+    private static String unfold(String ics) {
+        return ics.replace("\r\n ", "");
+    }
+}
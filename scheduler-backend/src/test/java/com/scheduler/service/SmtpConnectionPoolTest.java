@@ -0,0 +1,125 @@
+package com.scheduler.service;
+
+import com.scheduler.support.LocalSmtpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends through SmtpConnectionPool to LocalSmtpServer and checks which connection carried
+ * each message.
+ */
+class SmtpConnectionPoolTest {
+
+    private LocalSmtpServer smtpServer;
+    private SimpleMeterRegistry meterRegistry;
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new LocalSmtpServer();
+        meterRegistry = new SimpleMeterRegistry();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.getPort());
+
+        pool = new SmtpConnectionPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(pool, "enabled", true);
+        ReflectionTestUtils.setField(pool, "maxIdle", 5);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 100);
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", 30000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.closeAll();
+        smtpServer.close();
+    }
+
+    @Test
+    void sequentialSendsShareOneConnection() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            pool.send(message(i));
+        }
+
+        assertThat(smtpServer.getMessages()).hasSize(10)
+                .extracting(LocalSmtpServer.ReceivedMessage::connection)
+                .containsOnly(1);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(1);
+        assertThat(connectionsOpened()).isEqualTo(1);
+    }
+
+    @Test
+    void connectionIsReplacedAfterMaxMessages() throws Exception {
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 3);
+
+        for (int i = 0; i < 7; i++) {
+            pool.send(message(i));
+        }
+
+        assertThat(smtpServer.getMessages())
+                .extracting(LocalSmtpServer.ReceivedMessage::connection)
+                .containsExactly(1, 1, 1, 2, 2, 2, 3);
+        assertThat(connectionsOpened()).isEqualTo(3);
+    }
+
+    @Test
+    void idleReaperClosesExpiredConnections() throws Exception {
+        ReflectionTestUtils.setField(pool, "idleTimeoutMs", 100L);
+        pool.send(message(0));
+        assertThat(idleConnections()).hasSize(1);
+
+        pool.closeIdle();
+        assertThat(idleConnections()).as("not idle long enough yet").hasSize(1);
+
+        Thread.sleep(150);
+        pool.closeIdle();
+        assertThat(idleConnections()).isEmpty();
+
+        pool.send(message(1));
+        assertThat(smtpServer.getMessages())
+                .extracting(LocalSmtpServer.ReceivedMessage::connection)
+                .containsExactly(1, 2);
+    }
+
+    @Test
+    void connectionDroppedByTheServerIsReplacedOnBorrow() throws Exception {
+        pool.send(message(0));
+        smtpServer.dropConnections();
+
+        pool.send(message(1));
+
+        assertThat(smtpServer.getMessages())
+                .extracting(LocalSmtpServer.ReceivedMessage::connection)
+                .containsExactly(1, 2);
+        assertThat(connectionsOpened()).isEqualTo(2);
+    }
+
+    private MimeMessage message(int i) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@scheduler.test");
+        helper.setTo("attendee" + i + "@example.test");
+        helper.setSubject("Booking confirmed " + i);
+        helper.setText("<p>See you there</p>", true);
+        return message;
+    }
+
+    private double connectionsOpened() {
+        return meterRegistry.counter("email.smtp.connections.opened").count();
+    }
+
+    private Collection<?> idleConnections() {
+        return (Collection<?>) ReflectionTestUtils.getField(pool, "idle");
+    }
+}
@@ -0,0 +1,63 @@
+package com.scheduler.support;
+
+import com.google.api.client.http.HttpTransport;
+import com.scheduler.config.GoogleApiConfig;
+import com.scheduler.service.GoogleApiGuard;
+import com.scheduler.service.GoogleCalendarService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+/**
+ * Builds the production Google client stack (pooled transport, GoogleApiGuard, GoogleCalendarService)
+ * outside Spring, with the property defaults from application.properties.example.
+ */
+public final class GoogleTestClients {
+
+    private GoogleTestClients() {
+    }
+
+    public static HttpTransport transport(MeterRegistry meterRegistry) throws Exception {
+        GoogleApiConfig config = new GoogleApiConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 50);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 20);
+        ReflectionTestUtils.setField(config, "idleTimeoutSeconds", 60L);
+        ReflectionTestUtils.setField(config, "maxConcurrentCalls", 10);
+        PoolingHttpClientConnectionManager connectionManager = config.googleConnectionManager(meterRegistry);
+        return config.googleHttpTransport(connectionManager, meterRegistry);
+    }
+
+    /**
+     * @param overrides field name to value, e.g. {@code callTimeoutMs -> 200L}
+     */
+    public static GoogleApiGuard guard(AsyncTaskExecutor googleCallExecutor, MeterRegistry meterRegistry,
+                                       Map<String, Object> overrides) {
+        GoogleApiGuard guard = new GoogleApiGuard(googleCallExecutor, meterRegistry);
+        ReflectionTestUtils.setField(guard, "maxQueueWaitMs", 10000L);
+        ReflectionTestUtils.setField(guard, "callTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(guard, "slowCallMs", 5000L);
+        ReflectionTestUtils.setField(guard, "windowSize", 20);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 10);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(guard, "slowCallRateThreshold", 80);
+        ReflectionTestUtils.setField(guard, "openDurationMs", 30000L);
+        ReflectionTestUtils.setField(guard, "halfOpenCalls", 3);
+        overrides.forEach((field, value) -> ReflectionTestUtils.setField(guard, field, value));
+        ReflectionTestUtils.invokeMethod(guard, "initWindow");
+        return guard;
+    }
+
+    public static GoogleCalendarService calendarService(HttpTransport transport, GoogleApiGuard guard, String rootUrl) {
+        GoogleCalendarService service = new GoogleCalendarService(transport, guard);
+        ReflectionTestUtils.setField(service, "connectTimeoutMs", 5000);
+        ReflectionTestUtils.setField(service, "readTimeoutMs", 8000);
+        ReflectionTestUtils.setField(service, "clientId", "test-client-id");
+        ReflectionTestUtils.setField(service, "clientSecret", "test-client-secret");
+        ReflectionTestUtils.setField(service, "redirectUri", "http://localhost/callback");
+        ReflectionTestUtils.setField(service, "apiRootUrl", rootUrl);
+        return service;
+    }
+}
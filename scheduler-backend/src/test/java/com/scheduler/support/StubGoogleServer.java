@@ -0,0 +1,272 @@
+package com.scheduler.support;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.calendar.model.Channel;
+import com.google.api.services.calendar.model.ConferenceData;
+import com.google.api.services.calendar.model.EntryPoint;
+import com.google.api.services.calendar.model.Event;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local stand-in for the parts of the Google Calendar API the app calls: event insert, free/busy,
+ * watch channels and the multipart batch endpoint. Point GoogleCalendarService at {@link #getRootUrl()}.
+ *
+ * Latency and errors can be injected for every call ({@link #setLatencyMs}, {@link #setFailureStatus})
+ * or for single batch parts by event summary ({@link #failSummary}).
+ */
+public class StubGoogleServer implements AutoCloseable {
+
+    private static final JsonFactory JSON = GsonFactory.getDefaultInstance();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failingSummaries = new ConcurrentHashMap<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final List<String> busyPeriods = new CopyOnWriteArrayList<>();
+    private final Set<String> authorizations = ConcurrentHashMap.newKeySet();
+    private final List<String> stoppedChannels = new CopyOnWriteArrayList<>();
+
+    private volatile long latencyMs;
+    private volatile int failureStatus;
+
+    public StubGoogleServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 100);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Root URL for GoogleCalendarService's {@code google.api.root-url} (ends with /).
+     */
+    public String getRootUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    /**
+     * Answer every request with this HTTP status instead of a result; 0 turns it off.
+     */
+    public void setFailureStatus(int failureStatus) {
+        this.failureStatus = failureStatus;
+    }
+
+    /**
+     * Fail only the batch parts inserting an event with this summary.
+     */
+    public void failSummary(String summary, int status) {
+        failingSummaries.put(summary, status);
+    }
+
+    /**
+     * Busy period returned by free/busy queries, as RFC 3339 start and end.
+     */
+    public void addBusyPeriod(String start, String end) {
+        busyPeriods.add("{\"start\":\"" + start + "\",\"end\":\"" + end + "\"}");
+    }
+
+    public int getRequestCount(String kind) {
+        AtomicInteger count = requestCounts.get(kind);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Number of operations in each batch request received, in arrival order.
+     */
+    public List<Integer> getBatchSizes() {
+        return new ArrayList<>(batchSizes);
+    }
+
+    /**
+     * Distinct Authorization headers seen on batch requests.
+     */
+    public Set<String> getAuthorizations() {
+        return Set.copyOf(authorizations);
+    }
+
+    /**
+     * Ids of the watch channels stopped through channels.stop, in arrival order.
+     */
+    public List<String> getStoppedChannels() {
+        return new ArrayList<>(stoppedChannels);
+    }
+
+    public void reset() {
+        requestCounts.clear();
+        stoppedChannels.clear();
+        failingSummaries.clear();
+        batchSizes.clear();
+        busyPeriods.clear();
+        authorizations.clear();
+        latencyMs = 0;
+        failureStatus = 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            InputStream requestBody = exchange.getRequestBody();
+            if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                // The client gzips request bodies by default
+                requestBody = new GZIPInputStream(requestBody);
+            }
+            String body = new String(requestBody.readAllBytes(), StandardCharsets.UTF_8);
+            String kind = path.startsWith("/batch") ? "batch"
+                    : path.endsWith("/freeBusy") ? "freebusy"
+                    : path.endsWith("/events/watch") ? "watch"
+                    : path.endsWith("/channels/stop") ? "stop"
+                    : "events";
+            requestCounts.computeIfAbsent(kind, k -> new AtomicInteger()).incrementAndGet();
+
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+            if (failureStatus > 0) {
+                respond(exchange, failureStatus, "application/json", errorJson(failureStatus));
+                return;
+            }
+
+            switch (kind) {
+                case "batch" -> handleBatch(exchange, body);
+                case "freebusy" -> respond(exchange, 200, "application/json",
+                        "{\"kind\":\"calendar#freeBusy\",\"calendars\":{\"primary\":{\"busy\":["
+                                + String.join(",", busyPeriods) + "]}}}");
+                case "watch" -> respond(exchange, 200, "application/json", registeredChannel(body));
+                case "stop" -> {
+                    stoppedChannels.add(JSON.fromString(body, Channel.class).getId());
+                    respond(exchange, 204, null, "");
+                }
+                default -> {
+                    if ("DELETE".equals(exchange.getRequestMethod())) {
+                        respond(exchange, 204, null, "");
+                    } else {
+                        respond(exchange, 200, "application/json", insertedEvent(body));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange, String body) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length()).replace("\"", "");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            authorizations.add(authorization);
+        }
+
+        List<String> parts = new ArrayList<>();
+        for (String part : body.split("--" + boundary)) {
+            String trimmed = part.strip();
+            if (!trimmed.isEmpty() && !trimmed.equals("--")) {
+                parts.add(part);
+            }
+        }
+        batchSizes.add(parts.size());
+
+        String responseBoundary = "batch_" + UUID.randomUUID().toString().replace("-", "");
+        StringBuilder response = new StringBuilder();
+        int contentId = 1;
+        for (String part : parts) {
+            // Part headers, blank line, then the embedded HTTP request
+            String request = part.substring(part.indexOf("\r\n\r\n") + 4);
+            String requestLine = request.substring(0, request.indexOf("\r\n"));
+            int bodyStart = request.indexOf("\r\n\r\n");
+            String requestBody = bodyStart >= 0 ? request.substring(bodyStart + 4).strip() : "";
+            String method = requestLine.substring(0, requestLine.indexOf(' '));
+
+            response.append("--").append(responseBoundary).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <response-").append(contentId++).append(">\r\n\r\n");
+
+            if ("DELETE".equals(method)) {
+                response.append("HTTP/1.1 204 No Content\r\n\r\n\r\n");
+                continue;
+            }
+
+            Event event = JSON.fromString(requestBody, Event.class);
+            Integer status = event.getSummary() != null ? failingSummaries.get(event.getSummary()) : null;
+            if (status != null) {
+                response.append("HTTP/1.1 ").append(status).append(" Error\r\n")
+                        .append("Content-Type: application/json; charset=UTF-8\r\n\r\n")
+                        .append(errorJson(status)).append("\r\n");
+            } else {
+                response.append("HTTP/1.1 200 OK\r\n")
+                        .append("Content-Type: application/json; charset=UTF-8\r\n\r\n")
+                        .append(insertedEvent(requestBody)).append("\r\n");
+            }
+        }
+        response.append("--").append(responseBoundary).append("--\r\n");
+        respond(exchange, 200, "multipart/mixed; boundary=" + responseBoundary, response.toString());
+    }
+
+    private String insertedEvent(String requestBody) throws IOException {
+        Event event = requestBody.isBlank() ? new Event() : JSON.fromString(requestBody, Event.class);
+        String id = UUID.randomUUID().toString().replace("-", "");
+        event.setId(id);
+        event.setConferenceData(new ConferenceData().setEntryPoints(List.of(
+                new EntryPoint().setEntryPointType("video").setUri("https://meet.google.com/" + id.substring(0, 10)))));
+        return JSON.toString(event);
+    }
+
+    // Echoes the requested channel with a resource id and an expiry from its ttl param
+    private String registeredChannel(String requestBody) throws IOException {
+        Channel channel = JSON.fromString(requestBody, Channel.class);
+        long ttlSeconds = channel.getParams() != null && channel.getParams().containsKey("ttl")
+                ? Long.parseLong(channel.getParams().get("ttl"))
+                : 604800;
+        channel.setResourceId("resource-" + channel.getId());
+        channel.setExpiration(System.currentTimeMillis() + ttlSeconds * 1000);
+        return JSON.toString(channel);
+    }
+
+    private String errorJson(int status) {
+        return "{\"error\":{\"code\":" + status + ",\"message\":\"Injected failure\","
+                + "\"errors\":[{\"reason\":\"backendError\",\"message\":\"Injected failure\"}]}}";
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        exchange.sendResponseHeaders(status, status == 204 ? -1 : bytes.length);
+        if (status != 204) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
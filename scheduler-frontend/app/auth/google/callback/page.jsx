@@ -64,6 +64,7 @@ export default function GoogleCallbackPage() {
             ...userData,
             googleAccessToken: tokenData.accessToken,
             googleRefreshToken: tokenData.refreshToken,
+            googleTokenExpiresAt: tokenData.expiresAt,
           }),
         });
 
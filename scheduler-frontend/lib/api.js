@@ -83,6 +83,10 @@ class ApiClient {
     return this.request(`/api/users/username/${username}`);
   }
 
+  async getBookingPage(username, days = 7) {
+    return this.request(`/api/users/username/${username}/booking-page?days=${days}`);
+  }
+
   async createUser(userData) {
     return this.request('/api/users', {
       method: 'POST',